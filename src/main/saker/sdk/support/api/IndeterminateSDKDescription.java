@@ -16,6 +16,13 @@
 package saker.sdk.support.api;
 
 import java.io.Externalizable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import saker.sdk.support.impl.VersionRangeIndeterminateSDKDescription;
 
 /**
  * {@link SDKDescription} that may possibly select different SDKs on different environments.
@@ -73,4 +80,41 @@ public interface IndeterminateSDKDescription extends SDKDescription {
 
 	@Override
 	public boolean equals(Object obj);
+
+	/**
+	 * Creates a new indeterminate SDK description that selects the greatest SDK version in the given range.
+	 * <p>
+	 * The base SDK description probes the candidate descriptions in parallel on the resolving environment, and selects
+	 * the SDK with the greatest version that is in the specified range. The version of an SDK is determined by parsing
+	 * the property of it with the given identifier using {@link SDKVersion#valueOf(String)}. Candidates that fail to
+	 * resolve or don't have a valid version are ignored. The probe results are cached by the build environment.
+	 * <p>
+	 * Pinning the description results in an SDK description that selects the candidate with the exact same version.
+	 * 
+	 * @param candidates
+	 *            The candidate SDK descriptions.
+	 * @param versionidentifier
+	 *            The identifier of the SDK property that holds the version.
+	 * @param mininclusive
+	 *            The minimum version, inclusive. May be <code>null</code> for no lower bound.
+	 * @param maxexclusive
+	 *            The maximum version, exclusive. May be <code>null</code> for no upper bound.
+	 * @return The created SDK description.
+	 * @throws NullPointerException
+	 *             If the candidates, any of its elements, or the version identifier is <code>null</code>.
+	 * @since saker.sdk.support 0.8.4
+	 * @see SDKVersion#isInRange(SDKVersion, SDKVersion)
+	 */
+	public static IndeterminateSDKDescription createVersionRange(
+			Collection<? extends EnvironmentSDKDescription> candidates, String versionidentifier,
+			SDKVersion mininclusive, SDKVersion maxexclusive) throws NullPointerException {
+		Objects.requireNonNull(candidates, "candidates");
+		Objects.requireNonNull(versionidentifier, "version identifier");
+		List<EnvironmentSDKDescription> candidatelist = new ArrayList<>(candidates.size());
+		for (EnvironmentSDKDescription candidate : candidates) {
+			candidatelist.add(Objects.requireNonNull(candidate, "candidate"));
+		}
+		return new VersionRangeIndeterminateSDKDescription(Collections.unmodifiableList(candidatelist),
+				versionidentifier, mininclusive, maxexclusive);
+	}
 }
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package saker.sdk.support.api;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.Objects;
+
+import saker.sdk.support.impl.SimplePersistentSDKNameMap;
+
+/**
+ * Immutable {@link NavigableMap} with SDK name keys that supports cheap derivation of modified copies.
+ * <p>
+ * The keys of the map are ordered by the {@linkplain SDKSupportUtils#getSDKNameComparator() SDK name comparator},
+ * therefore they are treated in a case-insensitive manner.
+ * <p>
+ * The map cannot be modified. The {@link #with(String, Object)} and {@link #without(String)} methods return a new map
+ * with the specified modification, and share the unchanged entries with the original map. The derivation takes
+ * logarithmic time in the size of the map. This makes it suitable for deriving many variants of a large base SDK set
+ * where only a few SDKs are added or overridden.
+ * <p>
+ * The hash code of the map is cached. Comparing maps with different sizes is decided without examining the entries.
+ * <p>
+ * The range views, the descending views, and the {@linkplain #navigableKeySet() navigable key set} are created from a
+ * copy of the entries, so creating them takes linear time in the size of the map. The navigation methods that take a
+ * key, like {@link NavigableMap#floorEntry(Object)}, and the {@link #entrySet()} iteration don't copy the entries.
+ * <p>
+ * The {@link SDKSupportUtils} functions that produce SDK description maps from their arguments will produce persistent
+ * maps when they are called with persistent maps.
+ * <p>
+ * Clients shouldn't implement this interface.
+ * 
+ * @param <V>
+ *            The value type.
+ * @since saker.sdk.support 0.8.4
+ */
+public interface PersistentSDKNameMap<V> extends NavigableMap<String, V> {
+	/**
+	 * Gets a map that contains the entries of this map and the specified mapping.
+	 * <p>
+	 * If this map already contains a mapping for the SDK name, its value is replaced in the result, and the key of the
+	 * existing mapping is kept.
+	 * 
+	 * @param sdkname
+	 *            The SDK name.
+	 * @param value
+	 *            The value. May be <code>null</code>.
+	 * @return The map with the mapping added. May be <code>this</code> if the map already contains the same mapping.
+	 * @throws NullPointerException
+	 *             If the SDK name is <code>null</code>.
+	 */
+	public PersistentSDKNameMap<V> with(String sdkname, V value) throws NullPointerException;
+
+	/**
+	 * Gets a map that contains the entries of this map and the entries of the argument map.
+	 * <p>
+	 * Works the same way as calling {@link #with(String, Object)} for each entry in the argument.
+	 * 
+	 * @param map
+	 *            The map of entries to add.
+	 * @return The map with the entries added.
+	 * @throws NullPointerException
+	 *             If the argument or any of its keys are <code>null</code>.
+	 */
+	public default PersistentSDKNameMap<V> withAll(Map<String, ? extends V> map) throws NullPointerException {
+		Objects.requireNonNull(map, "map");
+		PersistentSDKNameMap<V> result = this;
+		for (Entry<String, ? extends V> entry : map.entrySet()) {
+			result = result.with(entry.getKey(), entry.getValue());
+		}
+		return result;
+	}
+
+	/**
+	 * Gets a map that contains the entries of this map except the mapping for the given SDK name.
+	 * 
+	 * @param sdkname
+	 *            The SDK name.
+	 * @return The map without the mapping. May be <code>this</code> if there's no mapping for the SDK name.
+	 * @throws NullPointerException
+	 *             If the SDK name is <code>null</code>.
+	 */
+	public PersistentSDKNameMap<V> without(String sdkname) throws NullPointerException;
+
+	/**
+	 * Gets an empty persistent SDK name map.
+	 * 
+	 * @param <V>
+	 *            The value type.
+	 * @return The empty map.
+	 */
+	public static <V> PersistentSDKNameMap<V> empty() {
+		return SimplePersistentSDKNameMap.empty();
+	}
+
+	/**
+	 * Gets a persistent SDK name map that contains the entries of the argument map.
+	 * <p>
+	 * If the argument is already a persistent SDK name map, it is returned as is. If the argument contains keys that
+	 * equal in a case-insensitive manner, the later ones in iteration order will override the previous ones.
+	 * 
+	 * @param <V>
+	 *            The value type.
+	 * @param map
+	 *            The map to copy.
+	 * @return The persistent map.
+	 * @throws NullPointerException
+	 *             If the argument or any of its keys are <code>null</code>.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <V> PersistentSDKNameMap<V> copyOf(Map<String, ? extends V> map) throws NullPointerException {
+		Objects.requireNonNull(map, "map");
+		if (map instanceof PersistentSDKNameMap) {
+			//the map is immutable, so it's safe to view it with the supertype values
+			return (PersistentSDKNameMap<V>) map;
+		}
+		return SimplePersistentSDKNameMap.<V>empty().withAll(map);
+	}
+}
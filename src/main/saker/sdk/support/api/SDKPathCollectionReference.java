@@ -20,7 +20,9 @@ import java.util.Collection;
 import java.util.Objects;
 
 import saker.build.file.path.SakerPath;
+import saker.build.file.path.WildcardPath;
 import saker.sdk.support.impl.SDKPathReferenceBackedCollectionReference;
+import saker.sdk.support.impl.WildcardSDKPathCollectionReference;
 
 /**
  * Interface providing access to a collection of paths derived from SDKs.
@@ -33,6 +35,9 @@ import saker.sdk.support.impl.SDKPathReferenceBackedCollectionReference;
  * {@link #equals(Object)} contract. Implementers are also recommended to implement {@link Externalizable}.
  * <p>
  * A delegate instance from {@link SDKPathReference} can be created using {@link #valueOf(SDKPathReference)}.
+ * <p>
+ * A collection of files in an SDK directory can be referenced using {@link #createWildcard(SDKPathReference,
+ * WildcardPath)}.
  * 
  * @since saker.sdk.support 0.8.3
  */
@@ -59,4 +64,30 @@ public interface SDKPathCollectionReference extends SDKValueReference<Collection
 		Objects.requireNonNull(pathref, "path reference");
 		return new SDKPathReferenceBackedCollectionReference(pathref);
 	}
+
+	/**
+	 * Creates a new instance that enumerates the files in an SDK directory that match the given wildcard.
+	 * <p>
+	 * The directory path is resolved using the argument {@link SDKPathReference}, and the files under it are matched
+	 * against the wildcard. The wildcard is matched against the file paths relative to the directory. E.g.
+	 * <code>**&#47;*.jar</code> matches all JAR files in the directory and its subdirectories.
+	 * <p>
+	 * The directory is listed on the local file system. The listings are cached and reused as long as the directory
+	 * tree is not modified.
+	 * 
+	 * @param directoryref
+	 *            The path reference to the directory.
+	 * @param wildcard
+	 *            The wildcard to match the relative file paths against.
+	 * @return The path collection reference.
+	 * @throws NullPointerException
+	 *             If any of the arguments are <code>null</code>.
+	 * @since saker.sdk.support 0.8.4
+	 */
+	public static SDKPathCollectionReference createWildcard(SDKPathReference directoryref, WildcardPath wildcard)
+			throws NullPointerException {
+		Objects.requireNonNull(directoryref, "directory reference");
+		Objects.requireNonNull(wildcard, "wildcard");
+		return new WildcardSDKPathCollectionReference(directoryref, wildcard);
+	}
 }
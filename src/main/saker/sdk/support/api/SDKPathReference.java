@@ -16,6 +16,9 @@
 package saker.sdk.support.api;
 
 import java.io.Externalizable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -23,6 +26,8 @@ import saker.build.exception.InvalidPathFormatException;
 import saker.build.file.path.SakerPath;
 import saker.build.thirdparty.saker.util.ObjectUtils;
 import saker.sdk.support.api.exc.SDKNotFoundException;
+import saker.sdk.support.api.exc.SDKPathNotFoundException;
+import saker.sdk.support.impl.FallbackSDKPathReference;
 import saker.sdk.support.impl.SimpleSDKPathReference;
 
 /**
@@ -128,4 +133,40 @@ public interface SDKPathReference extends SDKValueReference<SakerPath> {
 		Objects.requireNonNull(pathidentifier, "sdk path identifier");
 		return new SimpleSDKPathReference(sdkname, pathidentifier, relative);
 	}
+
+	/**
+	 * Creates a new {@link SDKPathReference} that retrieves the path from the first available alternative.
+	 * <p>
+	 * The alternatives are tried in order, and the first non-<code>null</code> value is returned. The remaining
+	 * alternatives are not evaluated. An alternative is skipped if its SDK is not present, or it doesn't have a value.
+	 * The misses of the references created by this interface are detected without throwing exceptions, so probing
+	 * optional SDK layouts is cheap.
+	 * <p>
+	 * If none of the alternatives are available, {@link SDKPathNotFoundException} is thrown when the value is
+	 * retrieved.
+	 * 
+	 * @param alternatives
+	 *            The alternative references in the order of preference.
+	 * @return The created path reference.
+	 * @throws NullPointerException
+	 *             If the argument or any of its elements are <code>null</code>.
+	 * @throws IllegalArgumentException
+	 *             If the argument is empty.
+	 * @since saker.sdk.support 0.8.4
+	 */
+	public static SDKPathReference createFallback(List<? extends SDKPathReference> alternatives)
+			throws NullPointerException, IllegalArgumentException {
+		Objects.requireNonNull(alternatives, "alternatives");
+		if (alternatives.isEmpty()) {
+			throw new IllegalArgumentException("No alternatives specified.");
+		}
+		List<SDKPathReference> refs = new ArrayList<>(alternatives.size());
+		for (SDKPathReference ref : alternatives) {
+			refs.add(Objects.requireNonNull(ref, "alternative"));
+		}
+		if (refs.size() == 1) {
+			return refs.get(0);
+		}
+		return new FallbackSDKPathReference(Collections.unmodifiableList(refs));
+	}
 }
@@ -16,10 +16,15 @@
 package saker.sdk.support.api;
 
 import java.io.Externalizable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
+import saker.sdk.support.impl.ArgumentListSDKPropertyCollectionReference;
 import saker.sdk.support.impl.SDKPropertyReferenceBackedCollectionReference;
+import saker.sdk.support.impl.SplitSDKPropertyCollectionReference;
 
 /**
  * Interface providing access to a collection of {@link String} properties derived from SDKs.
@@ -32,6 +37,11 @@ import saker.sdk.support.impl.SDKPropertyReferenceBackedCollectionReference;
  * {@link #equals(Object)} contract. Implementers are also recommended to implement {@link Externalizable}.
  * <p>
  * A delegate instance from {@link SDKPropertyReference} can be created using {@link #valueOf(SDKPropertyReference)}.
+ * <p>
+ * Command line arguments can be created from SDK path and property collections using
+ * {@link #createArgumentList(String, Collection)}.
+ * <p>
+ * Delimited list properties can be converted to collections using {@link #createSplit(SDKPropertyReference, String)}.
  * 
  * @since saker.sdk.support 0.8.3
  */
@@ -58,4 +68,81 @@ public interface SDKPropertyCollectionReference extends SDKValueReference<Collec
 		Objects.requireNonNull(properf, "property reference");
 		return new SDKPropertyReferenceBackedCollectionReference(properf);
 	}
+
+	/**
+	 * Creates a new instance that produces a list of arguments from the elements of the argument collection
+	 * references.
+	 * <p>
+	 * Each element of the argument collections is converted to a string and substituted into the template in place
+	 * of the <code>%s</code> placeholder. E.g. the <code>-I%s</code> template can be used to create include directory
+	 * arguments for a collection of SDK paths. The elements are added to the result list in the order of the argument
+	 * collections.
+	 * <p>
+	 * The template is not a {@link java.util.Formatter} format string, it must contain exactly one <code>%s</code>
+	 * placeholder, and the rest of it is used literally.
+	 * <p>
+	 * The returned reference evaluates to <code>null</code> if any of the argument collection references evaluate to
+	 * <code>null</code>.
+	 * 
+	 * @param template
+	 *            The argument template.
+	 * @param collections
+	 *            The SDK path or property collection references to create the arguments from.
+	 * @return The argument list reference.
+	 * @throws NullPointerException
+	 *             If any of the arguments or elements are <code>null</code>.
+	 * @throws IllegalArgumentException
+	 *             If the template doesn't contain exactly one <code>%s</code> placeholder.
+	 * @since saker.sdk.support 0.8.4
+	 */
+	public static SDKPropertyCollectionReference createArgumentList(String template,
+			Collection<? extends SDKValueReference<? extends Collection<?>>> collections)
+			throws NullPointerException, IllegalArgumentException {
+		Objects.requireNonNull(template, "template");
+		Objects.requireNonNull(collections, "collections");
+		int idx = template.indexOf("%s");
+		if (idx < 0 || template.indexOf("%s", idx + 2) >= 0) {
+			throw new IllegalArgumentException("Template must contain exactly one %s placeholder: " + template);
+		}
+		List<SDKValueReference<? extends Collection<?>>> sources = new ArrayList<>(collections.size());
+		for (SDKValueReference<? extends Collection<?>> ref : collections) {
+			Objects.requireNonNull(ref, "collection reference");
+			sources.add(ref);
+		}
+		return new ArgumentListSDKPropertyCollectionReference(template.substring(0, idx), template.substring(idx + 2),
+				Collections.unmodifiableList(sources));
+	}
+
+	/**
+	 * Creates a new instance that splits the value of the argument property reference.
+	 * <p>
+	 * The property value is split at each occurrence of the separator. The separator is used literally, it is not a
+	 * regular expression. The parts are trimmed, empty parts are omitted, and duplicate parts are removed. The result
+	 * list contains the parts in the order of their first occurrence.
+	 * <p>
+	 * The split result is cached by the returned reference, so splitting the same property value repeatedly only parses
+	 * it once.
+	 * <p>
+	 * The returned reference evaluates to <code>null</code> if the property reference evaluates to <code>null</code>.
+	 * 
+	 * @param properf
+	 *            The property reference.
+	 * @param separator
+	 *            The separator of the parts.
+	 * @return The created property collection reference.
+	 * @throws NullPointerException
+	 *             If any of the arguments are <code>null</code>.
+	 * @throws IllegalArgumentException
+	 *             If the separator is empty.
+	 * @since saker.sdk.support 0.8.4
+	 */
+	public static SDKPropertyCollectionReference createSplit(SDKPropertyReference properf, String separator)
+			throws NullPointerException, IllegalArgumentException {
+		Objects.requireNonNull(properf, "property reference");
+		Objects.requireNonNull(separator, "separator");
+		if (separator.isEmpty()) {
+			throw new IllegalArgumentException("Empty separator.");
+		}
+		return new SplitSDKPropertyCollectionReference(properf, separator);
+	}
 }
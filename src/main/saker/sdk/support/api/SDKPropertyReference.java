@@ -16,6 +16,8 @@
 package saker.sdk.support.api;
 
 import java.io.Externalizable;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Formatter;
 import java.util.List;
 import java.util.Map;
@@ -24,6 +26,10 @@ import java.util.Objects;
 import saker.build.thirdparty.saker.util.ImmutableUtils;
 import saker.build.thirdparty.saker.util.ObjectUtils;
 import saker.sdk.support.api.exc.SDKNotFoundException;
+import saker.sdk.support.api.exc.SDKPropertyNotFoundException;
+import saker.sdk.support.impl.ConstantSDKPropertyReference;
+import saker.sdk.support.impl.ContentFingerprintSDKPropertyReference;
+import saker.sdk.support.impl.FallbackSDKPropertyReference;
 import saker.sdk.support.impl.FormattedSDKPropertyReference;
 import saker.sdk.support.impl.SimpleSDKPropertyReference;
 
@@ -112,6 +118,11 @@ public interface SDKPropertyReference extends SDKValueReference<String> {
 	 * <p>
 	 * Each argument {@link SDKValueReference} will be evaluated in the caller SDK context and the results are formatted
 	 * with the given {@linkplain Formatter format string}.
+	 * <p>
+	 * The constant parts of the created reference are folded. If the format string only contains <code>%s</code>,
+	 * <code>%%</code> and <code>%n</code> specifiers, the {@linkplain #createConstant(String) constant} arguments are
+	 * rendered into the format string, and nested formatted references are collapsed, so only the SDK dependent
+	 * arguments are evaluated when the value is retrieved.
 	 * 
 	 * @param format
 	 *            The format string.
@@ -126,6 +137,90 @@ public interface SDKPropertyReference extends SDKValueReference<String> {
 			throws NullPointerException {
 		Objects.requireNonNull(format, "format");
 		Objects.requireNonNull(arguments, "arguments");
-		return new FormattedSDKPropertyReference(format, ImmutableUtils.makeImmutableList(arguments));
+		return FormattedSDKPropertyReference.create(format, ImmutableUtils.makeImmutableList(arguments));
+	}
+
+	/**
+	 * Creates a new {@link SDKPropertyReference} that has a constant value.
+	 * <p>
+	 * The created property reference doesn't depend on any SDKs. It can be used to pass literal arguments for
+	 * {@linkplain #createWithFormat(String, List) formatted property references}.
+	 * 
+	 * @param value
+	 *            The value of the property.
+	 * @return The created property reference.
+	 * @throws NullPointerException
+	 *             If the argument is <code>null</code>.
+	 * @since saker.sdk.support 0.8.4
+	 */
+	public static SDKPropertyReference createConstant(String value) throws NullPointerException {
+		Objects.requireNonNull(value, "value");
+		return new ConstantSDKPropertyReference(value);
+	}
+
+	/**
+	 * Creates a new {@link SDKPropertyReference} that computes the content fingerprint of an SDK directory.
+	 * <p>
+	 * The directory is resolved using the argument path reference, and the property value is a hexadecimal digest of
+	 * the relative paths and contents of all files in the directory tree. The value changes if any file in the SDK
+	 * directory is added, removed or modified, even if the SDK is updated in place.
+	 * <p>
+	 * The file digests are cached and only recomputed for files with changed size or modification time. The fingerprint
+	 * is computed on every evaluation. Use
+	 * {@link SDKSupportUtils#evaluateSDKValueReferenceMemoized(Map, SDKValueReference)} to only compute it once for a
+	 * given SDK map.
+	 * <p>
+	 * The fingerprint is computed when the reference is evaluated, on the machine that evaluates it. No dependency is
+	 * reported for it, so an in-place SDK update doesn't cause any task to rerun by itself. The update is detected by a
+	 * task that evaluates the reference when it runs, and compares the value to the one recorded in a previous build.
+	 * Tasks that are not rerun for other reasons don't see the change.
+	 * 
+	 * @param directoryref
+	 *            The path reference to the SDK directory.
+	 * @return The created property reference.
+	 * @throws NullPointerException
+	 *             If the argument is <code>null</code>.
+	 * @since saker.sdk.support 0.8.4
+	 */
+	public static SDKPropertyReference createContentFingerprint(SDKPathReference directoryref)
+			throws NullPointerException {
+		Objects.requireNonNull(directoryref, "directory reference");
+		return new ContentFingerprintSDKPropertyReference(directoryref);
+	}
+
+	/**
+	 * Creates a new {@link SDKPropertyReference} that retrieves the property from the first available alternative.
+	 * <p>
+	 * The alternatives are tried in order, and the first non-<code>null</code> value is returned. The remaining
+	 * alternatives are not evaluated. An alternative is skipped if its SDK is not present, or it doesn't have a value.
+	 * The misses of the references created by this interface are detected without throwing exceptions, so probing
+	 * optional SDK layouts is cheap.
+	 * <p>
+	 * If none of the alternatives are available, {@link SDKPropertyNotFoundException} is thrown when the value is
+	 * retrieved.
+	 * 
+	 * @param alternatives
+	 *            The alternative references in the order of preference.
+	 * @return The created property reference.
+	 * @throws NullPointerException
+	 *             If the argument or any of its elements are <code>null</code>.
+	 * @throws IllegalArgumentException
+	 *             If the argument is empty.
+	 * @since saker.sdk.support 0.8.4
+	 */
+	public static SDKPropertyReference createFallback(List<? extends SDKPropertyReference> alternatives)
+			throws NullPointerException, IllegalArgumentException {
+		Objects.requireNonNull(alternatives, "alternatives");
+		if (alternatives.isEmpty()) {
+			throw new IllegalArgumentException("No alternatives specified.");
+		}
+		List<SDKPropertyReference> refs = new ArrayList<>(alternatives.size());
+		for (SDKPropertyReference ref : alternatives) {
+			refs.add(Objects.requireNonNull(ref, "alternative"));
+		}
+		if (refs.size() == 1) {
+			return refs.get(0);
+		}
+		return new FallbackSDKPropertyReference(Collections.unmodifiableList(refs));
 	}
 }
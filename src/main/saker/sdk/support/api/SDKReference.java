@@ -16,6 +16,8 @@
 package saker.sdk.support.api;
 
 import java.io.Externalizable;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 
 import saker.build.file.path.SakerPath;
@@ -78,6 +80,29 @@ public interface SDKReference {
 	 */
 	public String getProperty(String identifier) throws Exception;
 
+	/**
+	 * Gets the local directories that the contents of this SDK depend on.
+	 * <p>
+	 * SDK references that are resolved from {@linkplain EnvironmentSDKDescription environment SDK descriptions} are
+	 * cached by the build environment, and are not resolved again until the environment is reset. If an SDK reference
+	 * returns directories from this method, then these directories will be watched for changes, and the SDK reference
+	 * will be resolved again when the contents of them change. (E.g. when the SDK is upgraded in place.)
+	 * <p>
+	 * The directories are watched by the build environment that resolves the SDK, which is the one that executes the
+	 * task. A change doesn't cause any task to rerun by itself, but the tasks that run after it get the newly resolved
+	 * SDK reference.
+	 * <p>
+	 * The directories are not watched recursively, only the direct changes in them are detected.
+	 * <p>
+	 * The default implementation returns an empty collection, meaning that the SDK is not watched.
+	 * 
+	 * @return The directories to watch. May be empty or <code>null</code>.
+	 * @since saker.sdk.support 0.8.4
+	 */
+	public default Collection<SakerPath> getWatchedDirectories() {
+		return Collections.emptySet();
+	}
+
 	@Override
 	public int hashCode();
 
@@ -19,13 +19,23 @@ import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NavigableMap;
 import java.util.Objects;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.function.Function;
 
 import saker.build.file.path.SakerPath;
 import saker.build.runtime.environment.EnvironmentProperty;
@@ -39,8 +49,14 @@ import saker.sdk.support.api.exc.SDKNameConflictException;
 import saker.sdk.support.api.exc.SDKNotFoundException;
 import saker.sdk.support.api.exc.SDKPathNotFoundException;
 import saker.sdk.support.api.exc.SDKPropertyNotFoundException;
+import saker.sdk.support.api.exc.SDKValueNotFoundException;
 import saker.sdk.support.impl.EnvironmentSDKDescriptionReferenceEnvironmentProperty;
 import saker.sdk.support.impl.SDKBasedClusterExecutionEnvironmentSelector;
+import saker.sdk.support.impl.SDKValueReferenceEvaluator;
+import saker.sdk.support.impl.SDKValueReferenceMemos;
+import saker.sdk.support.impl.SimpleSDKValueLookupResult;
+import saker.sdk.support.impl.WatchedEnvironmentSDKReferenceEnvironmentProperty;
+import saker.sdk.support.impl.WatchedSDKResolutions;
 import saker.std.api.environment.qualifier.AnyEnvironmentQualifier;
 import saker.std.api.environment.qualifier.EnvironmentQualifier;
 import saker.std.api.environment.qualifier.EnvironmentQualifierVisitor;
@@ -50,6 +66,18 @@ import saker.std.api.environment.qualifier.PropertyEnvironmentQualifier;
  * Utility class providing functions for SDK management.
  */
 public class SDKSupportUtils {
+	private static final int PINNED_DESCRIPTION_CACHE_SIZE = 256;
+	/**
+	 * Memoized results of {@link IndeterminateSDKDescription#pinSDKDescription(SDKReference)} in least recently used
+	 * order.
+	 * <p>
+	 * Both the keys and the pinned descriptions are weakly referenced, so the memo doesn't keep the SDK support classes
+	 * and their class loaders alive after they are no longer used by the builds.
+	 * <p>
+	 * Accesses are synchronized on the map.
+	 */
+	private static final PinnedDescriptionMap PINNED_DESCRIPTIONS = new PinnedDescriptionMap();
+
 	private SDKSupportUtils() {
 		throw new UnsupportedOperationException();
 	}
@@ -165,6 +193,37 @@ public class SDKSupportUtils {
 		}
 	}
 
+	/**
+	 * Looks up the value of the argument SDK value reference without throwing an exception.
+	 * <p>
+	 * The method can be used to probe for optional SDK values. If the referenced SDK is not present, or the value is
+	 * not available, the returned result describes the reason, but the exception for it is only created if requested
+	 * using {@link SDKValueLookupResult#getFailure()} or {@link SDKValueLookupResult#getValueOrThrow()}.
+	 * <p>
+	 * The misses of the path and property references created by {@link SDKPathReference#create} and
+	 * {@link SDKPropertyReference#create} are detected without any exceptions being thrown. Other reference types are
+	 * evaluated using {@link SDKValueReference#getValue(Map)}, and the thrown exception is recorded in the result.
+	 * <p>
+	 * The argument SDK map should be ordered using {@link #getSDKNameComparator()}.
+	 * 
+	 * @param <T>
+	 *            The type of the value.
+	 * @param sdks
+	 *            The SDKs to look up the value from.
+	 * @param reference
+	 *            The reference to look up.
+	 * @return The lookup result.
+	 * @throws NullPointerException
+	 *             If any of the arguments are <code>null</code>.
+	 * @since saker.sdk.support 0.8.4
+	 */
+	public static <T> SDKValueLookupResult<T> lookupSDKValue(Map<String, ? extends SDKReference> sdks,
+			SDKValueReference<T> reference) throws NullPointerException {
+		Objects.requireNonNull(sdks, "sdks");
+		Objects.requireNonNull(reference, "sdk value reference");
+		return SimpleSDKValueLookupResult.lookup(reference, sdks);
+	}
+
 	/**
 	 * Gets a {@link TaskExecutionEnvironmentSelector} instance that selects the suitable environments for the argument
 	 * SDKs with regard to cluster execution.
@@ -239,7 +298,9 @@ public class SDKSupportUtils {
 	 *            {@link #getSDKBasedClusterExecutionEnvironmentSelector(Collection)}.
 	 * @param sdkdescriptions
 	 *            The SDK descriptions that should be pinned.
-	 * @return The pinned SDK description map.
+	 * @return The pinned SDK description map. It is a new map ordered by the {@linkplain #getSDKNameComparator() SDK
+	 *             name comparator}, unless the argument is a {@link PersistentSDKNameMap}. In that case the result is
+	 *             also a persistent map that shares the unpinned entries with the argument.
 	 * @throws NullPointerException
 	 *             If any of the arguments are <code>null</code>.
 	 * @throws SDKNotFoundException
@@ -251,30 +312,20 @@ public class SDKSupportUtils {
 			throws NullPointerException, SDKNotFoundException {
 		Objects.requireNonNull(envselectionresult, "environment selection result");
 		Objects.requireNonNull(sdkdescriptions, "sdk descriptions");
-		TreeMap<String, SDKDescription> ndescriptions = new TreeMap<>(sdkdescriptions);
-		for (Entry<String, SDKDescription> entry : ndescriptions.entrySet()) {
+		IndeterminateSDKDescriptionFinder finder = new IndeterminateSDKDescriptionFinder();
+		NavigableMap<String, SDKDescription> ndescriptions = null;
+		for (Entry<String, ? extends SDKDescription> entry : sdkdescriptions.entrySet()) {
 			SDKDescription desc = entry.getValue();
-			desc.accept(new SDKDescriptionVisitor() {
-				@Override
-				public void visit(EnvironmentSDKDescription description) {
-				}
-
-				@SuppressWarnings("deprecation")
-				@Override
-				public void visit(ResolvedSDKDescription description) {
-				}
-
-				@Override
-				public void visit(UserSDKDescription description) {
-				}
-
-				@Override
-				public void visit(IndeterminateSDKDescription indeterminate) {
-					SDKReference actualreference = getResolvedSDKReference(desc, envselectionresult);
-					SDKDescription pinneddescription = indeterminate.pinSDKDescription(actualreference);
-					entry.setValue(pinneddescription);
-				}
-			});
+			IndeterminateSDKDescription indeterminate = finder.find(desc);
+			if (indeterminate == null) {
+				continue;
+			}
+			SDKReference actualreference = getResolvedSDKReference(desc, envselectionresult);
+			ndescriptions = withPinnedDescription(sdkdescriptions, ndescriptions, entry.getKey(),
+					pinSDKDescription(indeterminate, actualreference));
+		}
+		if (ndescriptions == null) {
+			return copySDKDescriptionMap(sdkdescriptions);
 		}
 		return ndescriptions;
 	}
@@ -290,7 +341,9 @@ public class SDKSupportUtils {
 	 *            The SDK descriptions that should be pinned.
 	 * @param sdkreferences
 	 *            The resolved SDK references.
-	 * @return The pinned SDK description map.
+	 * @return The pinned SDK description map. It is a new map ordered by the {@linkplain #getSDKNameComparator() SDK
+	 *             name comparator}, unless the argument is a {@link PersistentSDKNameMap}. In that case the result is
+	 *             also a persistent map that shares the unpinned entries with the argument.
 	 * @throws NullPointerException
 	 *             If any of the arguments are <code>null</code>.
 	 * @throws SDKNotFoundException
@@ -303,34 +356,22 @@ public class SDKSupportUtils {
 			throws NullPointerException, SDKNotFoundException {
 		Objects.requireNonNull(sdkdescriptions, "sdk descriptions");
 		Objects.requireNonNull(sdkreferences, "sdk references");
-		TreeMap<String, SDKDescription> ndescriptions = new TreeMap<>(sdkdescriptions);
-		for (Entry<String, SDKDescription> entry : ndescriptions.entrySet()) {
-			SDKDescription desc = entry.getValue();
-			desc.accept(new SDKDescriptionVisitor() {
-				@Override
-				public void visit(EnvironmentSDKDescription description) {
-				}
-
-				@SuppressWarnings("deprecation")
-				@Override
-				public void visit(ResolvedSDKDescription description) {
-				}
-
-				@Override
-				public void visit(UserSDKDescription description) {
-				}
-
-				@Override
-				public void visit(IndeterminateSDKDescription indeterminate) {
-					SDKReference actualreference = sdkreferences.get(entry.getKey());
-					if (actualreference == null) {
-						throw new SDKNotFoundException("Resolved SDK reference not found for name: " + entry.getKey());
-					}
-					SDKDescription pinneddescription = indeterminate.pinSDKDescription(actualreference);
-					entry.setValue(pinneddescription);
-				}
-
-			});
+		IndeterminateSDKDescriptionFinder finder = new IndeterminateSDKDescriptionFinder();
+		NavigableMap<String, SDKDescription> ndescriptions = null;
+		for (Entry<String, ? extends SDKDescription> entry : sdkdescriptions.entrySet()) {
+			IndeterminateSDKDescription indeterminate = finder.find(entry.getValue());
+			if (indeterminate == null) {
+				continue;
+			}
+			SDKReference actualreference = sdkreferences.get(entry.getKey());
+			if (actualreference == null) {
+				throw new SDKNotFoundException("Resolved SDK reference not found for name: " + entry.getKey());
+			}
+			ndescriptions = withPinnedDescription(sdkdescriptions, ndescriptions, entry.getKey(),
+					pinSDKDescription(indeterminate, actualreference));
+		}
+		if (ndescriptions == null) {
+			return copySDKDescriptionMap(sdkdescriptions);
 		}
 		return ndescriptions;
 	}
@@ -358,6 +399,7 @@ public class SDKSupportUtils {
 	 *             If an SDK cannot be resolved in the current build environment.
 	 * @since saker.sdk.support 0.8.2
 	 * @see #resolveSDKReference(TaskContext, SDKDescription)
+	 * @see #resolveAllSDKReferences(TaskContext, NavigableMap)
 	 */
 	public static NavigableMap<String, SDKReference> resolveSDKReferences(TaskContext taskcontext,
 			NavigableMap<String, ? extends SDKDescription> sdkdescriptions)
@@ -421,6 +463,73 @@ public class SDKSupportUtils {
 		return sdkreferences;
 	}
 
+	/**
+	 * Resolves the SDK references for all of the specified SDK descriptions, and reports all failures together.
+	 * <p>
+	 * This method works similarly to {@link #resolveSDKReferences(TaskContext, NavigableMap)}, but it doesn't stop at
+	 * the first SDK that fails to resolve. The SDK descriptions are resolved sequentially on the calling thread, and if
+	 * any of them fails, a single exception is thrown that has the failure for each failed SDK as a
+	 * {@linkplain Throwable#getSuppressed() suppressed exception}. The messages of the suppressed exceptions contain
+	 * the name of the associated SDK, and their causes are the original failures.
+	 * <p>
+	 * If an SDK name conflict is encountered, the thrown {@link SDKNameConflictException} has the failures collected
+	 * until that point as suppressed exceptions.
+	 * <p>
+	 * The method will install appropriate dependencies as specified by
+	 * {@link #resolveSDKReference(TaskContext, SDKDescription)}.
+	 * 
+	 * @param taskcontext
+	 *            The task context.
+	 * @param sdkdescriptions
+	 *            The SDK descriptions.
+	 * @return The resolved SDK references.
+	 * @throws NullPointerException
+	 *             If any of the arguments are <code>null</code>.
+	 * @throws SDKNameConflictException
+	 *             If there are more than one SDKs in the argument map for the same name defined by
+	 *             {@link #getSDKNameComparator()}.
+	 * @throws SDKNotFoundException
+	 *             If any of the SDKs cannot be resolved in the current build environment.
+	 * @since saker.sdk.support 0.8.4
+	 */
+	public static NavigableMap<String, SDKReference> resolveAllSDKReferences(TaskContext taskcontext,
+			NavigableMap<String, ? extends SDKDescription> sdkdescriptions)
+			throws NullPointerException, SDKNameConflictException, SDKNotFoundException {
+		Objects.requireNonNull(taskcontext, "task context");
+		Objects.requireNonNull(sdkdescriptions, "sdk descriptions");
+
+		return resolveAllSDKReferences(sdkdescriptions, d -> resolveSDKReference(taskcontext, d));
+	}
+
+	/**
+	 * Resolves the SDK references for all of the specified SDK descriptions, and reports all failures together.
+	 * <p>
+	 * This method works similarly to {@link #resolveAllSDKReferences(TaskContext, NavigableMap)}, but doesn't report
+	 * dependencies.
+	 * 
+	 * @param environment
+	 *            The build environment.
+	 * @param sdkdescriptions
+	 *            The SDK descriptions.
+	 * @return The resolved SDK references.
+	 * @throws NullPointerException
+	 *             If any of the arguments are <code>null</code>.
+	 * @throws SDKNameConflictException
+	 *             If there are more than one SDKs in the argument map for the same name defined by
+	 *             {@link #getSDKNameComparator()}.
+	 * @throws SDKNotFoundException
+	 *             If any of the SDKs cannot be resolved in the current build environment.
+	 * @since saker.sdk.support 0.8.4
+	 */
+	public static NavigableMap<String, SDKReference> resolveAllSDKReferences(SakerEnvironment environment,
+			NavigableMap<String, ? extends SDKDescription> sdkdescriptions)
+			throws NullPointerException, SDKNameConflictException, SDKNotFoundException {
+		Objects.requireNonNull(environment, "environment");
+		Objects.requireNonNull(sdkdescriptions, "sdk descriptions");
+
+		return resolveAllSDKReferences(sdkdescriptions, d -> resolveSDKReference(environment, d));
+	}
+
 	/**
 	 * Resolves an SDK reference from the given SDK description.
 	 * <p>
@@ -456,6 +565,17 @@ public class SDKSupportUtils {
 			protected <T> T getEnvironmentPropertyValue(EnvironmentProperty<T> property) {
 				return taskcontext.getTaskUtilities().getReportEnvironmentDependency(property);
 			}
+
+			@Override
+			protected SDKReference getWatchedSDKReference(EnvironmentSDKDescription description) {
+				//resolve in the environment that executes the task, as the watched directories are local to it
+				SakerEnvironment environment = taskcontext.getExecutionContext().getEnvironment();
+				WatchedSDKResolutions resolutions = WatchedSDKResolutions.get(environment);
+				SDKReference sdkref = resolutions.getSDKReference(description, environment);
+				taskcontext.reportEnvironmentDependency(new WatchedEnvironmentSDKReferenceEnvironmentProperty(
+						description, resolutions.getGeneration(description)), sdkref);
+				return sdkref;
+			}
 		};
 		sdkdescription.accept(resolver);
 		return resolver.result;
@@ -491,6 +611,11 @@ public class SDKSupportUtils {
 			protected <T> T getEnvironmentPropertyValue(EnvironmentProperty<T> property) {
 				return environment.getEnvironmentPropertyCurrentValue(property);
 			}
+
+			@Override
+			protected SDKReference getWatchedSDKReference(EnvironmentSDKDescription description) {
+				return WatchedSDKResolutions.get(environment).getSDKReference(description, environment);
+			}
 		};
 		sdkdescription.accept(resolver);
 		return resolver.result;
@@ -520,6 +645,270 @@ public class SDKSupportUtils {
 		return sdk;
 	}
 
+	/**
+	 * Resolves the argument path references and validates that the resolved paths exist.
+	 * <p>
+	 * The method resolves all path references against the argument SDKs, and checks the existence of the resolved
+	 * paths in a single batch. The existence is checked on the calling thread, so the method should be called on the
+	 * machine that executes the task, as the SDK paths are local to it. Each distinct path is only checked once.
+	 * <p>
+	 * The method doesn't report any dependencies on the checked paths.
+	 * <p>
+	 * Tasks can call this method before starting expensive work in order to fail early if an SDK is misconfigured.
+	 * <p>
+	 * All the references are examined before failing. If there are multiple invalid paths, the exceptions for them are
+	 * added as {@linkplain Throwable#getSuppressed() suppressed exceptions} to the thrown one.
+	 * <p>
+	 * The argument SDK map should be ordered using {@link #getSDKNameComparator()}.
+	 * 
+	 * @param sdks
+	 *            The SDKs to resolve the path references against.
+	 * @param pathreferences
+	 *            The path references to validate.
+	 * @return The unmodifiable map of path references to the resolved paths. The iteration order is the same as the
+	 *             argument collection.
+	 * @throws NullPointerException
+	 *             If any of the arguments are <code>null</code>.
+	 * @throws SDKPathNotFoundException
+	 *             If a path reference couldn't be resolved, or the resolved path doesn't exist.
+	 * @since saker.sdk.support 0.8.4
+	 */
+	public static Map<SDKPathReference, SakerPath> validateSDKPathReferences(Map<String, ? extends SDKReference> sdks,
+			Collection<? extends SDKPathReference> pathreferences)
+			throws NullPointerException, SDKPathNotFoundException {
+		Objects.requireNonNull(sdks, "sdks");
+		Objects.requireNonNull(pathreferences, "path references");
+
+		SDKPathNotFoundException exc = null;
+		Map<SDKPathReference, SakerPath> result = new LinkedHashMap<>();
+		for (SDKPathReference pathref : pathreferences) {
+			SakerPath path;
+			try {
+				path = getSDKPathReferencePath(pathref, sdks);
+			} catch (SDKPathNotFoundException e) {
+				exc = addSuppressedException(exc, e);
+				continue;
+			}
+			if (path == null) {
+				exc = addSuppressedException(exc, new SDKPathNotFoundException("No SDK path found for: " + pathref));
+				continue;
+			}
+			result.put(pathref, path);
+		}
+
+		Set<SakerPath> checkedpaths = new HashSet<>();
+		for (SakerPath path : result.values()) {
+			if (!checkedpaths.add(path)) {
+				continue;
+			}
+			if (!Files.exists(Paths.get(path.toString()))) {
+				exc = addSuppressedException(exc, new SDKPathNotFoundException("SDK path doesn't exist: " + path));
+			}
+		}
+		if (exc != null) {
+			throw exc;
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * Evaluates the argument SDK value references against the given SDKs.
+	 * <p>
+	 * The references are evaluated as a single graph. Equal references, including the ones that are nested in
+	 * formatted property references and argument lists of this library, are only evaluated once, and their results
+	 * are shared.
+	 * <p>
+	 * The results are returned in the same order as the argument references. A result is <code>null</code> if the
+	 * associated reference evaluated to <code>null</code>.
+	 * <p>
+	 * All the references are evaluated before failing. If any of them fails, an exception is thrown that has the
+	 * failures for each failed reference as {@linkplain Throwable#getSuppressed() suppressed exceptions}. The messages
+	 * of the suppressed exceptions contain the index of the associated reference, and their causes are the original
+	 * failures.
+	 * 
+	 * @param sdks
+	 *            The SDKs to evaluate the references against. The map should be ordered by the rules of
+	 *            {@link #getSDKNameComparator()}.
+	 * @param references
+	 *            The references to evaluate.
+	 * @return The unmodifiable list of results.
+	 * @throws NullPointerException
+	 *             If any of the arguments or elements are <code>null</code>.
+	 * @throws SDKValueNotFoundException
+	 *             If the evaluation of a reference failed.
+	 * @since saker.sdk.support 0.8.4
+	 */
+	public static List<Object> evaluateSDKValueReferences(Map<String, ? extends SDKReference> sdks,
+			List<? extends SDKValueReference<?>> references) throws NullPointerException, SDKValueNotFoundException {
+		Objects.requireNonNull(sdks, "sdks");
+		Objects.requireNonNull(references, "references");
+
+		SDKValueReferenceEvaluator evaluator = new SDKValueReferenceEvaluator(sdks);
+		Object[] results = new Object[references.size()];
+		SDKValueNotFoundException exc = null;
+		int i = 0;
+		for (SDKValueReference<?> ref : references) {
+			Objects.requireNonNull(ref, "sdk value reference");
+			try {
+				results[i] = evaluator.evaluate(ref);
+			} catch (Exception e) {
+				if (exc == null) {
+					exc = new SDKValueNotFoundException("Failed to evaluate SDK value references.");
+				}
+				exc.addSuppressed(
+						new SDKValueNotFoundException("Failed to evaluate SDK value at index " + i + ": " + ref, e));
+			}
+			++i;
+		}
+		if (exc != null) {
+			throw exc;
+		}
+		return Collections.unmodifiableList(Arrays.asList(results));
+	}
+
+	/**
+	 * Evaluates the argument SDK value reference and memoizes the result for the given SDK map instance.
+	 * <p>
+	 * The results are memoized by the identity of the argument SDK map. Evaluating the same reference multiple times
+	 * with the same map instance computes it only once, and subsequent calls return the memoized result. This is useful
+	 * when a task evaluates the same references at multiple stages of its execution, e.g. when collecting its inputs
+	 * and later when building a command line. Nested references of formatted properties and argument lists of this
+	 * library share the memoized results as well. Failures are memoized, and the same exception is rethrown.
+	 * <p>
+	 * The SDK map is weakly referenced, and the memoized results are dropped after it is garbage collected. Callers
+	 * shouldn't modify the SDK map after they started evaluating references with it, as the memoized results are not
+	 * invalidated.
+	 * <p>
+	 * The memoization is opt-in. Calling {@link SDKValueReference#getValue(Map)} directly doesn't use it.
+	 * 
+	 * @param <T>
+	 *            The type of the value.
+	 * @param sdks
+	 *            The SDKs to evaluate the reference against.
+	 * @param reference
+	 *            The reference to evaluate.
+	 * @return The value of the reference. May be <code>null</code>.
+	 * @throws NullPointerException
+	 *             If any of the arguments are <code>null</code>.
+	 * @throws Exception
+	 *             If the evaluation of the reference failed.
+	 * @since saker.sdk.support 0.8.4
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T evaluateSDKValueReferenceMemoized(Map<String, ? extends SDKReference> sdks,
+			SDKValueReference<T> reference) throws NullPointerException, Exception {
+		Objects.requireNonNull(sdks, "sdks");
+		Objects.requireNonNull(reference, "sdk value reference");
+		return (T) SDKValueReferenceMemos.evaluate(sdks, reference);
+	}
+
+	private static NavigableMap<String, SDKReference> resolveAllSDKReferences(
+			NavigableMap<String, ? extends SDKDescription> sdkdescriptions,
+			Function<? super SDKDescription, ? extends SDKReference> resolver) {
+		NavigableMap<String, SDKReference> sdkreferences = new TreeMap<>(getSDKNameComparator());
+		SDKNotFoundException exc = null;
+		for (Entry<String, ? extends SDKDescription> entry : sdkdescriptions.entrySet()) {
+			String sdkname = entry.getKey();
+			SDKReference sdk;
+			try {
+				sdk = resolver.apply(entry.getValue());
+			} catch (Exception e) {
+				if (exc == null) {
+					exc = new SDKNotFoundException("Failed to resolve SDKs.");
+				}
+				exc.addSuppressed(new SDKNotFoundException("Failed to resolve SDK: " + sdkname, e));
+				continue;
+			}
+			SDKReference prev = sdkreferences.put(sdkname, sdk);
+			if (prev != null) {
+				SDKNameConflictException conflictexc = new SDKNameConflictException(
+						"Duplicate SDKs with name: " + sdkname + " as " + prev + " and " + sdk);
+				if (exc != null) {
+					for (Throwable failure : exc.getSuppressed()) {
+						conflictexc.addSuppressed(failure);
+					}
+				}
+				throw conflictexc;
+			}
+		}
+		if (exc != null) {
+			throw exc;
+		}
+		return sdkreferences;
+	}
+
+	private static <E extends Throwable> E addSuppressedException(E exc, E e) {
+		if (exc == null) {
+			return e;
+		}
+		exc.addSuppressed(e);
+		return exc;
+	}
+
+	private static NavigableMap<String, SDKDescription> copySDKDescriptionMap(
+			NavigableMap<String, ? extends SDKDescription> sdkdescriptions) {
+		if (sdkdescriptions instanceof PersistentSDKNameMap) {
+			//immutable, no need to copy
+			return PersistentSDKNameMap.copyOf(sdkdescriptions);
+		}
+		NavigableMap<String, SDKDescription> result = new TreeMap<>(getSDKNameComparator());
+		result.putAll(sdkdescriptions);
+		return result;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static NavigableMap<String, SDKDescription> withPinnedDescription(
+			NavigableMap<String, ? extends SDKDescription> sdkdescriptions,
+			NavigableMap<String, SDKDescription> ndescriptions, String sdkname, SDKDescription pinned) {
+		if (ndescriptions == null) {
+			if (sdkdescriptions instanceof PersistentSDKNameMap) {
+				//share the unchanged entries with the argument
+				return PersistentSDKNameMap.<SDKDescription>copyOf(sdkdescriptions).with(sdkname, pinned);
+			}
+			ndescriptions = copySDKDescriptionMap(sdkdescriptions);
+		} else if (ndescriptions instanceof PersistentSDKNameMap) {
+			return ((PersistentSDKNameMap<SDKDescription>) ndescriptions).with(sdkname, pinned);
+		}
+		ndescriptions.put(sdkname, pinned);
+		return ndescriptions;
+	}
+
+	private static SDKDescription pinSDKDescription(IndeterminateSDKDescription indeterminate, SDKReference sdkref) {
+		PinKey key = new PinKey(indeterminate, sdkref);
+		synchronized (PINNED_DESCRIPTIONS) {
+			SDKDescription pinned = getPinnedDescription(key);
+			if (pinned != null) {
+				return pinned;
+			}
+		}
+		//pin outside of the lock, as it calls client code
+		SDKDescription pinned = indeterminate.pinSDKDescription(sdkref);
+		if (pinned == null) {
+			return null;
+		}
+		synchronized (PINNED_DESCRIPTIONS) {
+			//return the already present one to keep the results canonical if pinned concurrently
+			SDKDescription prev = getPinnedDescription(key);
+			if (prev != null) {
+				return prev;
+			}
+			PINNED_DESCRIPTIONS.put(key, new WeakReference<>(pinned));
+			return pinned;
+		}
+	}
+
+	private static SDKDescription getPinnedDescription(PinKey key) {
+		WeakReference<SDKDescription> ref = PINNED_DESCRIPTIONS.get(key);
+		if (ref == null) {
+			return null;
+		}
+		SDKDescription result = ref.get();
+		if (result == null) {
+			PINNED_DESCRIPTIONS.remove(key);
+		}
+		return result;
+	}
+
 	private static SDKReference getResolvedSDKReference(SDKDescription description,
 			EnvironmentSelectionResult selectionresult) {
 		SDKReference[] result = { null };
@@ -539,6 +928,37 @@ public class SDKSupportUtils {
 		return result[0];
 	}
 
+	private static final class IndeterminateSDKDescriptionFinder implements SDKDescriptionVisitor {
+		private IndeterminateSDKDescription result;
+
+		public IndeterminateSDKDescriptionFinder() {
+		}
+
+		public IndeterminateSDKDescription find(SDKDescription description) {
+			result = null;
+			description.accept(this);
+			return result;
+		}
+
+		@Override
+		public void visit(EnvironmentSDKDescription description) {
+		}
+
+		@SuppressWarnings("deprecation")
+		@Override
+		public void visit(ResolvedSDKDescription description) {
+		}
+
+		@Override
+		public void visit(UserSDKDescription description) {
+		}
+
+		@Override
+		public void visit(IndeterminateSDKDescription description) {
+			result = description;
+		}
+	}
+
 	private static final class ClusterableCheckingSDKDescriptionVisitor implements SDKDescriptionVisitor {
 		protected boolean clusterable = true;
 
@@ -609,6 +1029,10 @@ public class SDKSupportUtils {
 			EnvironmentProperty<? extends SDKReference> property = SDKSupportUtils
 					.getEnvironmentSDKDescriptionReferenceEnvironmentProperty(description);
 			SDKReference ref = getEnvironmentPropertyValue(property);
+			if (ref != null && !ObjectUtils.isNullOrEmpty(ref.getWatchedDirectories())) {
+				//the SDK opted in for directory watching, the environment property value may be stale
+				ref = getWatchedSDKReference(description);
+			}
 			result = ref;
 		}
 
@@ -646,6 +1070,63 @@ public class SDKSupportUtils {
 		}
 
 		protected abstract <T> T getEnvironmentPropertyValue(EnvironmentProperty<T> property);
+
+		protected abstract SDKReference getWatchedSDKReference(EnvironmentSDKDescription description);
+	}
+
+	private static final class PinnedDescriptionMap extends LinkedHashMap<PinKey, WeakReference<SDKDescription>> {
+		private static final long serialVersionUID = 1L;
+
+		public PinnedDescriptionMap() {
+			super(16, 0.75f, true);
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<PinKey, WeakReference<SDKDescription>> eldest) {
+			return size() > PINNED_DESCRIPTION_CACHE_SIZE;
+		}
+	}
+
+	/**
+	 * Key of the pinned description memo. The description and reference are weakly referenced, so the memo doesn't
+	 * keep them, and the class loaders of their classes reachable.
+	 * <p>
+	 * Keys with cleared referents are only equal to themselves. They are evicted from the memo as it is bounded.
+	 */
+	private static final class PinKey {
+		private final WeakReference<IndeterminateSDKDescription> description;
+		private final WeakReference<SDKReference> reference;
+		private final int hash;
+
+		public PinKey(IndeterminateSDKDescription description, SDKReference reference) {
+			this.description = new WeakReference<>(description);
+			this.reference = new WeakReference<>(reference);
+			this.hash = description.hashCode() * 31 + reference.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			PinKey other = (PinKey) obj;
+			if (hash != other.hash)
+				return false;
+			IndeterminateSDKDescription desc = description.get();
+			SDKReference ref = reference.get();
+			if (desc == null || ref == null) {
+				return false;
+			}
+			return desc.equals(other.description.get()) && ref.equals(other.reference.get());
+		}
 	}
 
 	private static final class SDKNameComparator implements Comparator<String>, Externalizable {
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package saker.sdk.support.api;
+
+import java.util.Map;
+
+import saker.sdk.support.api.exc.SDKManagementException;
+import saker.sdk.support.api.exc.SDKNotFoundException;
+import saker.sdk.support.api.exc.SDKValueNotFoundException;
+
+/**
+ * The result of looking up the value of an {@link SDKValueReference} without throwing an exception.
+ * <p>
+ * The lookup result either contains the found value, or the reason why the value was not found. The exception that
+ * describes the reason is only created when it is requested, so probing optional SDK values is cheap.
+ * <p>
+ * Clients should not implement this interface.
+ * 
+ * @param <T>
+ *            The type of the value.
+ * @since saker.sdk.support 0.8.4
+ * @see SDKSupportUtils#lookupSDKValue(Map, SDKValueReference)
+ */
+public interface SDKValueLookupResult<T> {
+	/**
+	 * Checks if the value was found.
+	 * <p>
+	 * A value is not found if the referenced SDK is not present, the value evaluated to <code>null</code>, or the
+	 * evaluation failed.
+	 * 
+	 * @return <code>true</code> if the value was found.
+	 */
+	public boolean isFound();
+
+	/**
+	 * Gets the found value.
+	 * 
+	 * @return The value, or <code>null</code> if it was not found.
+	 */
+	public T getValue();
+
+	/**
+	 * Gets the exception that describes why the value was not found.
+	 * <p>
+	 * The returned exception is {@linkplain SDKValueNotFoundException#createStackless(String, Throwable) stackless}.
+	 * 
+	 * @return The exception, or <code>null</code> if the value was found.
+	 */
+	public SDKManagementException getFailure();
+
+	/**
+	 * Gets the found value or throws an exception if it was not found.
+	 * 
+	 * @return The value.
+	 * @throws SDKNotFoundException
+	 *             If the referenced SDK is not present.
+	 * @throws SDKValueNotFoundException
+	 *             If the value was not found.
+	 */
+	public T getValueOrThrow() throws SDKNotFoundException, SDKValueNotFoundException;
+}
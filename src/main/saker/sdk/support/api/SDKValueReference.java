@@ -37,6 +37,7 @@ import java.util.Map;
  * @see SDKPropertyReference
  * @see SDKPathCollectionReference
  * @see SDKPropertyCollectionReference
+ * @see SDKVersionReference
  */
 public interface SDKValueReference<T> {
 	/**
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package saker.sdk.support.api;
+
+import java.io.Externalizable;
+import java.util.Objects;
+
+import saker.sdk.support.impl.SimpleSDKVersion;
+
+/**
+ * Interface representing a parsed, comparable version of an SDK.
+ * <p>
+ * A version consists of numeric components and an optional qualifier. The numeric components are the dot
+ * (<code>.</code>) or underscore (<code>_</code>) separated numbers at the start of the version string. The qualifier
+ * is the remaining part of the version string. E.g. <code>1.2.3-beta</code> has the components <code>1</code>,
+ * <code>2</code>, <code>3</code>, and the qualifier <code>-beta</code>.
+ * <p>
+ * Versions are compared by their numeric components first. Missing components are treated as zero, so
+ * <code>1.2</code> and <code>1.2.0</code> are equal.
+ * <p>
+ * The part of the qualifier starting from the first <code>+</code> character is build metadata, the part before it is
+ * the pre-release identifier. If the components are equal, a version with a pre-release identifier is less than a
+ * version without one (i.e. pre-releases come before releases). The build metadata doesn't make a version a
+ * pre-release, so <code>11.0.2+9</code> comes after <code>11.0.2</code>, and versions that only differ in their build
+ * metadata are ordered by it.
+ * <p>
+ * The pre-release identifiers and build metadata are compared segment by segment. The segments are separated by the
+ * <code>.</code>, <code>-</code>, <code>_</code>, <code>+</code> characters, and the boundaries between digits and
+ * other characters. Numeric segments are compared as numbers, and come before non-numeric segments, which are
+ * compared lexicographically. E.g. <code>-rc9</code> comes before <code>-rc10</code>.
+ * <p>
+ * Versions are parsed once, and the comparisons don't examine the version strings.
+ * <p>
+ * Clients shouldn't implement this interface. Instances of this interface are {@link Externalizable}.
+ * <p>
+ * Use {@link #valueOf(String)} to create a new instance.
+ * 
+ * @since saker.sdk.support 0.8.4
+ * @see SDKVersionReference
+ */
+public interface SDKVersion extends Comparable<SDKVersion> {
+	/**
+	 * Gets the number of numeric components of the version.
+	 * <p>
+	 * Trailing zero components are not counted.
+	 * 
+	 * @return The number of components.
+	 */
+	public int getComponentCount();
+
+	/**
+	 * Gets the numeric component at the given index.
+	 * 
+	 * @param index
+	 *            The index of the component.
+	 * @return The component or 0 if the index is greater or equal to the {@linkplain #getComponentCount() component
+	 *             count}.
+	 * @throws IndexOutOfBoundsException
+	 *             If the index is negative.
+	 */
+	public int getComponent(int index) throws IndexOutOfBoundsException;
+
+	/**
+	 * Gets the qualifier of the version.
+	 * 
+	 * @return The qualifier or <code>null</code> if the version has none.
+	 */
+	public String getQualifier();
+
+	/**
+	 * Checks if this version is greater or equal to the argument.
+	 * 
+	 * @param version
+	 *            The version to compare to.
+	 * @return <code>true</code> if this version is at least the argument.
+	 * @throws NullPointerException
+	 *             If the argument is <code>null</code>.
+	 */
+	public default boolean isAtLeast(SDKVersion version) throws NullPointerException {
+		Objects.requireNonNull(version, "version");
+		return compareTo(version) >= 0;
+	}
+
+	/**
+	 * Checks if this version is in the specified range.
+	 * <p>
+	 * The range is inclusive for the minimum, and exclusive for the maximum version. E.g. the range <code>1.2</code>
+	 * and <code>2</code> includes all <code>1.x</code> versions starting from <code>1.2</code>.
+	 * 
+	 * @param mininclusive
+	 *            The inclusive minimum version or <code>null</code> if there's no lower bound.
+	 * @param maxexclusive
+	 *            The exclusive maximum version or <code>null</code> if there's no upper bound.
+	 * @return <code>true</code> if the version is in the range.
+	 */
+	public default boolean isInRange(SDKVersion mininclusive, SDKVersion maxexclusive) {
+		if (mininclusive != null && compareTo(mininclusive) < 0) {
+			return false;
+		}
+		if (maxexclusive != null && compareTo(maxexclusive) >= 0) {
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the version string that this version was parsed from.
+	 * 
+	 * @return The version string.
+	 */
+	@Override
+	public String toString();
+
+	@Override
+	public int hashCode();
+
+	/**
+	 * Checks if this version is the same as the argument.
+	 * <p>
+	 * Versions are equal if they {@linkplain #compareTo(Object) compare} equal, even if they were parsed from different
+	 * version strings.
+	 * 
+	 * @param obj
+	 *            The object to compare with.
+	 * @return <code>true</code> if the versions are the same.
+	 */
+	@Override
+	public boolean equals(Object obj);
+
+	/**
+	 * Parses the argument version string.
+	 * <p>
+	 * The parsed versions are cached, so parsing the same version string multiple times is cheap.
+	 * 
+	 * @param version
+	 *            The version string.
+	 * @return The parsed version.
+	 * @throws NullPointerException
+	 *             If the argument is <code>null</code>.
+	 * @throws IllegalArgumentException
+	 *             If the version string doesn't start with a numeric component, or a component is too large.
+	 */
+	public static SDKVersion valueOf(String version) throws NullPointerException, IllegalArgumentException {
+		Objects.requireNonNull(version, "version");
+		return SimpleSDKVersion.valueOf(version);
+	}
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package saker.sdk.support.api;
+
+import java.io.Externalizable;
+import java.util.Objects;
+
+import saker.sdk.support.impl.VersionSDKValueReference;
+
+/**
+ * Interface that references an {@link SDKVersion} derived based on the associated SDKs.
+ * <p>
+ * Version references can be used by tasks that make decisions based on the versions of the SDKs they use. The version
+ * is parsed once when the reference is evaluated, and the comparisons of the result are integer comparisons.
+ * <p>
+ * Clients may implement this interface. When doing so, make sure to adhere to the {@link #hashCode()} and
+ * {@link #equals(Object)} contract. Implementers are also recommended to implement {@link Externalizable}.
+ * <p>
+ * Use {@link #create(SDKPropertyReference)} to create a new instance.
+ * 
+ * @since saker.sdk.support 0.8.4
+ */
+public interface SDKVersionReference extends SDKValueReference<SDKVersion> {
+	@Override
+	public int hashCode();
+
+	@Override
+	public boolean equals(Object obj);
+
+	/**
+	 * Creates a new version reference that parses the value of the argument property reference.
+	 * <p>
+	 * The created reference evaluates to <code>null</code> if the property reference evaluates to <code>null</code>.
+	 * 
+	 * @param propertyref
+	 *            The property reference of the version string.
+	 * @return The created version reference.
+	 * @throws NullPointerException
+	 *             If the argument is <code>null</code>.
+	 */
+	public static SDKVersionReference create(SDKPropertyReference propertyref) throws NullPointerException {
+		Objects.requireNonNull(propertyref, "property reference");
+		return new VersionSDKValueReference(propertyref);
+	}
+}
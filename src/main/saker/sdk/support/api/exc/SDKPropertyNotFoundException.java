@@ -61,4 +61,22 @@ public class SDKPropertyNotFoundException extends SDKValueNotFoundException {
 	public SDKPropertyNotFoundException(Throwable cause) {
 		super(cause);
 	}
+
+	/**
+	 * Creates a new instance that has no stack trace.
+	 * <p>
+	 * Creating a stackless exception is cheap, as the stack trace is not filled in. They are used to signal expected
+	 * misses when probing for SDKs and their values, or to wrap a cause exception that already has the relevant stack
+	 * trace.
+	 * 
+	 * @param message
+	 *            The detail message.
+	 * @param cause
+	 *            The cause of the exception. May be <code>null</code>.
+	 * @return The created exception.
+	 * @since saker.sdk.support 0.8.4
+	 */
+	public static SDKPropertyNotFoundException createStackless(String message, Throwable cause) {
+		return new SDKPropertyNotFoundException(message, cause, true, false);
+	}
 }
@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package saker.sdk.support.impl;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import saker.sdk.support.api.SDKPropertyCollectionReference;
+import saker.sdk.support.api.SDKReference;
+import saker.sdk.support.api.SDKValueReference;
+
+public final class ArgumentListSDKPropertyCollectionReference
+		implements SDKPropertyCollectionReference, Externalizable {
+	private static final long serialVersionUID = 1L;
+
+	private String prefix;
+	private String suffix;
+	private List<? extends SDKValueReference<? extends Collection<?>>> sources;
+
+	/**
+	 * For {@link Externalizable}.
+	 */
+	public ArgumentListSDKPropertyCollectionReference() {
+	}
+
+	public ArgumentListSDKPropertyCollectionReference(String prefix, String suffix,
+			List<? extends SDKValueReference<? extends Collection<?>>> sources) {
+		this.prefix = prefix;
+		this.suffix = suffix;
+		this.sources = sources;
+	}
+
+	@Override
+	public Collection<String> getValue(Map<String, ? extends SDKReference> sdks)
+			throws NullPointerException, Exception {
+		//evaluate the sources directly, an evaluator only pays off if it is shared with other references
+		int size = sources.size();
+		Collection<?>[] values = new Collection<?>[size];
+		for (int i = 0; i < size; i++) {
+			Collection<?> val = sources.get(i).getValue(sdks);
+			if (val == null) {
+				return null;
+			}
+			values[i] = val;
+		}
+		return join(values);
+	}
+
+	Collection<String> evaluate(SDKValueReferenceEvaluator evaluator) throws Exception {
+		int size = sources.size();
+		Collection<?>[] values = new Collection<?>[size];
+		for (int i = 0; i < size; i++) {
+			Collection<?> val = (Collection<?>) evaluator.evaluate(sources.get(i));
+			if (val == null) {
+				return null;
+			}
+			values[i] = val;
+		}
+		return join(values);
+	}
+
+	private Collection<String> join(Collection<?>[] values) {
+		int count = 0;
+		for (Collection<?> val : values) {
+			count += val.size();
+		}
+		List<String> result = new ArrayList<>(count);
+		StringBuilder sb = new StringBuilder(prefix.length() + suffix.length() + 64);
+		for (Collection<?> val : values) {
+			for (Object element : val) {
+				sb.setLength(0);
+				sb.append(prefix);
+				sb.append(element);
+				sb.append(suffix);
+				result.add(sb.toString());
+			}
+		}
+		return Collections.unmodifiableList(result);
+	}
+
+	@Override
+	public void writeExternal(ObjectOutput out) throws IOException {
+		out.writeUTF(prefix);
+		out.writeUTF(suffix);
+		out.writeInt(sources.size());
+		for (SDKValueReference<?> source : sources) {
+			out.writeObject(source);
+		}
+	}
+
+	@Override
+	public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+		prefix = in.readUTF();
+		suffix = in.readUTF();
+		int size = in.readInt();
+		List<SDKValueReference<? extends Collection<?>>> sources = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			@SuppressWarnings("unchecked")
+			SDKValueReference<? extends Collection<?>> source = (SDKValueReference<? extends Collection<?>>) in
+					.readObject();
+			sources.add(source);
+		}
+		this.sources = Collections.unmodifiableList(sources);
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((prefix == null) ? 0 : prefix.hashCode());
+		result = prime * result + ((sources == null) ? 0 : sources.hashCode());
+		result = prime * result + ((suffix == null) ? 0 : suffix.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ArgumentListSDKPropertyCollectionReference other = (ArgumentListSDKPropertyCollectionReference) obj;
+		if (prefix == null) {
+			if (other.prefix != null)
+				return false;
+		} else if (!prefix.equals(other.prefix))
+			return false;
+		if (sources == null) {
+			if (other.sources != null)
+				return false;
+		} else if (!sources.equals(other.sources))
+			return false;
+		if (suffix == null) {
+			if (other.suffix != null)
+				return false;
+		} else if (!suffix.equals(other.suffix))
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[" + prefix + "%s" + suffix + ": " + sources + "]";
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package saker.sdk.support.impl;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Map;
+
+import saker.sdk.support.api.SDKPropertyReference;
+import saker.sdk.support.api.SDKReference;
+
+public final class ConstantSDKPropertyReference implements SDKPropertyReference, Externalizable {
+	private static final long serialVersionUID = 1L;
+
+	private String value;
+
+	/**
+	 * For {@link Externalizable}.
+	 */
+	public ConstantSDKPropertyReference() {
+	}
+
+	public ConstantSDKPropertyReference(String value) {
+		this.value = value;
+	}
+
+	@Override
+	@SuppressWarnings("deprecation")
+	public String getSDKName() {
+		throw new UnsupportedOperationException("Deprecated. Use getValue() instead.");
+	}
+
+	@Override
+	@SuppressWarnings("deprecation")
+	public String getProperty(SDKReference sdk) throws Exception {
+		throw new UnsupportedOperationException("Deprecated. Use getValue() instead.");
+	}
+
+	@Override
+	public String getValue(Map<String, ? extends SDKReference> sdks) throws NullPointerException {
+		return value;
+	}
+
+	String getConstantValue() {
+		return value;
+	}
+
+	@Override
+	public void writeExternal(ObjectOutput out) throws IOException {
+		SDKReferenceSerialFormat.writeLongUTF(out, value);
+	}
+
+	@Override
+	public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+		value = SDKReferenceSerialFormat.readLongUTF(in);
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((value == null) ? 0 : value.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ConstantSDKPropertyReference other = (ConstantSDKPropertyReference) obj;
+		if (value == null) {
+			if (other.value != null)
+				return false;
+		} else if (!value.equals(other.value))
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[" + value + "]";
+	}
+
+}
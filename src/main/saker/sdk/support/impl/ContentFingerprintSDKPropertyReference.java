@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package saker.sdk.support.impl;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Map;
+
+import saker.build.file.path.SakerPath;
+import saker.build.thirdparty.saker.util.io.SerialUtils;
+import saker.sdk.support.api.SDKPathReference;
+import saker.sdk.support.api.SDKPropertyReference;
+import saker.sdk.support.api.SDKReference;
+
+public final class ContentFingerprintSDKPropertyReference implements SDKPropertyReference, Externalizable {
+	private static final long serialVersionUID = 1L;
+
+	private SDKPathReference directoryReference;
+
+	/**
+	 * For {@link Externalizable}.
+	 */
+	public ContentFingerprintSDKPropertyReference() {
+	}
+
+	public ContentFingerprintSDKPropertyReference(SDKPathReference directoryReference) {
+		this.directoryReference = directoryReference;
+	}
+
+	@Override
+	@SuppressWarnings("deprecation")
+	public String getSDKName() {
+		throw new UnsupportedOperationException("Deprecated. Use getValue() instead.");
+	}
+
+	@Override
+	@SuppressWarnings("deprecation")
+	public String getProperty(SDKReference sdk) throws Exception {
+		throw new UnsupportedOperationException("Deprecated. Use getValue() instead.");
+	}
+
+	@Override
+	public String getValue(Map<String, ? extends SDKReference> sdks) throws NullPointerException, Exception {
+		SakerPath directory = directoryReference.getValue(sdks);
+		if (directory == null) {
+			return null;
+		}
+		return SDKContentFingerprints.getDirectoryFingerprint(directory);
+	}
+
+	String evaluate(SDKValueReferenceEvaluator evaluator) throws Exception {
+		SakerPath directory = (SakerPath) evaluator.evaluate(directoryReference);
+		if (directory == null) {
+			return null;
+		}
+		return SDKContentFingerprints.getDirectoryFingerprint(directory);
+	}
+
+	@Override
+	public void writeExternal(ObjectOutput out) throws IOException {
+		out.writeObject(directoryReference);
+	}
+
+	@Override
+	public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+		directoryReference = SerialUtils.readExternalObject(in);
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((directoryReference == null) ? 0 : directoryReference.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ContentFingerprintSDKPropertyReference other = (ContentFingerprintSDKPropertyReference) obj;
+		if (directoryReference == null) {
+			if (other.directoryReference != null)
+				return false;
+		} else if (!directoryReference.equals(other.directoryReference))
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[" + directoryReference + "]";
+	}
+
+}
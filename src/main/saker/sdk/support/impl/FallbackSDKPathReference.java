@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package saker.sdk.support.impl;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.List;
+import java.util.Map;
+
+import saker.build.file.path.SakerPath;
+import saker.sdk.support.api.SDKPathReference;
+import saker.sdk.support.api.SDKReference;
+import saker.sdk.support.api.exc.SDKPathNotFoundException;
+
+public final class FallbackSDKPathReference implements SDKPathReference, Externalizable {
+	private static final long serialVersionUID = 1L;
+
+	private List<SDKPathReference> alternatives;
+
+	/**
+	 * For {@link Externalizable}.
+	 */
+	public FallbackSDKPathReference() {
+	}
+
+	public FallbackSDKPathReference(List<SDKPathReference> alternatives) {
+		this.alternatives = alternatives;
+	}
+
+	@Override
+	@SuppressWarnings("deprecation")
+	public String getSDKName() {
+		throw new UnsupportedOperationException("Deprecated. Use getValue() instead.");
+	}
+
+	@Override
+	@SuppressWarnings("deprecation")
+	public SakerPath getPath(SDKReference sdk) throws Exception {
+		throw new UnsupportedOperationException("Deprecated. Use getValue() instead.");
+	}
+
+	@Override
+	public SakerPath getValue(Map<String, ? extends SDKReference> sdks) throws NullPointerException, Exception {
+		return (SakerPath) FallbackSDKValueReferences.getFirstAvailableOrThrow(alternatives, sdks,
+				() -> new SDKPathNotFoundException("No SDK path found for any of the alternatives: " + alternatives));
+	}
+
+	List<SDKPathReference> getAlternatives() {
+		return alternatives;
+	}
+
+	@Override
+	public void writeExternal(ObjectOutput out) throws IOException {
+		FallbackSDKValueReferences.writeAlternatives(out, alternatives);
+	}
+
+	@Override
+	public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+		alternatives = FallbackSDKValueReferences.readAlternatives(in);
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((alternatives == null) ? 0 : alternatives.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		FallbackSDKPathReference other = (FallbackSDKPathReference) obj;
+		if (alternatives == null) {
+			if (other.alternatives != null)
+				return false;
+		} else if (!alternatives.equals(other.alternatives))
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[" + alternatives + "]";
+	}
+
+}
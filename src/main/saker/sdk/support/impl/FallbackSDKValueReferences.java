@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package saker.sdk.support.impl;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import saker.sdk.support.api.SDKReference;
+import saker.sdk.support.api.SDKValueLookupResult;
+import saker.sdk.support.api.SDKValueReference;
+
+/**
+ * Utility functions for evaluating the alternatives of fallback SDK value references.
+ * <p>
+ * The alternatives are tried in order, and the first non-<code>null</code> value is returned. The remaining
+ * alternatives are not evaluated. A missing SDK or value is a miss. Misses of the well known reference types of this
+ * package are detected without calling {@link SDKValueReference#getValue(Map)}, so no exceptions are created for them
+ * unless all of the alternatives miss.
+ */
+final class FallbackSDKValueReferences {
+	private FallbackSDKValueReferences() {
+		throw new UnsupportedOperationException();
+	}
+
+	public static Object getFirstAvailable(List<? extends SDKValueReference<?>> alternatives,
+			Map<String, ? extends SDKReference> sdks) {
+		for (SDKValueReference<?> ref : alternatives) {
+			Object result = SimpleSDKValueLookupResult.lookup(ref, sdks).getValue();
+			if (result != null) {
+				return result;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the first available value, or throws the given exception if none of the alternatives are available.
+	 * <p>
+	 * The failure of each alternative is added as a suppressed exception to the thrown exception.
+	 */
+	public static <E extends Exception> Object getFirstAvailableOrThrow(
+			List<? extends SDKValueReference<?>> alternatives, Map<String, ? extends SDKReference> sdks,
+			Supplier<? extends E> notfoundexceptionsupplier) throws E {
+		List<SDKValueLookupResult<?>> misses = new ArrayList<>(alternatives.size());
+		for (SDKValueReference<?> ref : alternatives) {
+			SDKValueLookupResult<?> lookup = SimpleSDKValueLookupResult.lookup(ref, sdks);
+			Object result = lookup.getValue();
+			if (result != null) {
+				return result;
+			}
+			misses.add(lookup);
+		}
+		E exc = notfoundexceptionsupplier.get();
+		for (SDKValueLookupResult<?> miss : misses) {
+			exc.addSuppressed(miss.getFailure());
+		}
+		throw exc;
+	}
+
+	public static void writeAlternatives(ObjectOutput out, List<?> alternatives) throws IOException {
+		out.writeInt(alternatives.size());
+		for (Object ref : alternatives) {
+			out.writeObject(ref);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	public static <T> List<T> readAlternatives(ObjectInput in) throws IOException, ClassNotFoundException {
+		int size = in.readInt();
+		List<T> result = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			result.add((T) in.readObject());
+		}
+		return Collections.unmodifiableList(result);
+	}
+}
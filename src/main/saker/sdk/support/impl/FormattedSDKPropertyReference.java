@@ -2,9 +2,13 @@ package saker.sdk.support.impl;
 
 import java.io.Externalizable;
 import java.io.IOException;
+import java.io.InvalidObjectException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 import saker.build.thirdparty.saker.util.io.SerialUtils;
@@ -19,6 +23,8 @@ public class FormattedSDKPropertyReference implements SDKPropertyReference, Exte
 	private String format;
 	private List<? extends SDKValueReference<?>> arguments;
 
+	private transient int hashCode;
+
 	/**
 	 * For {@link Externalizable}.
 	 */
@@ -30,6 +36,34 @@ public class FormattedSDKPropertyReference implements SDKPropertyReference, Exte
 		this.arguments = arguments;
 	}
 
+	/**
+	 * Creates a formatted property reference and folds its constant parts.
+	 * <p>
+	 * If the format string only contains <code>%s</code>, <code>%%</code> and <code>%n</code> specifiers, then the
+	 * constant arguments are rendered into the format string, and the nested formatted property references are
+	 * collapsed into the created one. Only the SDK dependent arguments remain to be evaluated. If all arguments are
+	 * constant, a constant property reference is returned.
+	 * <p>
+	 * Other format strings are not folded, and a formatted property reference is created with the arguments as is.
+	 * 
+	 * @param format
+	 *            The format string.
+	 * @param arguments
+	 *            The format arguments.
+	 * @return The property reference.
+	 */
+	public static SDKPropertyReference create(String format, List<? extends SDKValueReference<?>> arguments) {
+		StringBuilder nformat = new StringBuilder(format.length());
+		List<SDKValueReference<?>> nargs = new ArrayList<>(arguments.size());
+		if (!appendFolded(nformat, nargs, format, arguments)) {
+			return new FormattedSDKPropertyReference(format, arguments);
+		}
+		if (nargs.isEmpty()) {
+			return new ConstantSDKPropertyReference(String.format((Locale) null, nformat.toString()));
+		}
+		return new FormattedSDKPropertyReference(nformat.toString(), Collections.unmodifiableList(nargs));
+	}
+
 	@Override
 	@SuppressWarnings("deprecation")
 	public String getSDKName() {
@@ -44,37 +78,76 @@ public class FormattedSDKPropertyReference implements SDKPropertyReference, Exte
 
 	@Override
 	public String getValue(Map<String, ? extends SDKReference> sdks) throws NullPointerException, Exception {
+		//evaluate the arguments directly, an evaluator only pays off if it is shared with other references
 		Object[] args = new Object[arguments.size()];
 		int i = 0;
 		for (SDKValueReference<?> valref : arguments) {
-			Object val = valref.getValue(sdks);
-			if (val == null) {
-				throw new SDKValueNotFoundException("SDK value not found for: " + valref);
-			}
-			//don't need to be stringized, formats like %s converts it to string automatically
-			args[i++] = val;
+			args[i++] = requireArgumentValue(valref, valref.getValue(sdks));
 		}
 		return String.format(null, format, args);
 	}
 
+	String evaluate(SDKValueReferenceEvaluator evaluator) throws Exception {
+		Object[] args = new Object[arguments.size()];
+		int i = 0;
+		for (SDKValueReference<?> valref : arguments) {
+			args[i++] = requireArgumentValue(valref, evaluator.evaluate(valref));
+		}
+		return String.format(null, format, args);
+	}
+
+	private static Object requireArgumentValue(SDKValueReference<?> valref, Object val)
+			throws SDKValueNotFoundException {
+		if (val == null) {
+			throw new SDKValueNotFoundException("SDK value not found for: " + valref);
+		}
+		//don't need to be stringized, formats like %s converts it to string automatically
+		return val;
+	}
+
+	String getFormat() {
+		return format;
+	}
+
+	List<? extends SDKValueReference<?>> getArguments() {
+		return arguments;
+	}
+
 	@Override
 	public void writeExternal(ObjectOutput out) throws IOException {
-		out.writeObject(format);
-		SerialUtils.writeExternalCollection(out, arguments);
+		//the legacy format starts with the non-null format string, write null to signal the versioned format
+		out.writeObject(null);
+		out.writeByte(SDKReferenceSerialFormat.VERSION_STRING_TABLE);
+		new SDKReferenceSerialFormat.Writer(out).writeFormatted(this);
 	}
 
 	@Override
 	public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
-		format = SerialUtils.readExternalObject(in);
-		arguments = SerialUtils.readExternalImmutableList(in);
+		Object legacyformat = in.readObject();
+		if (legacyformat != null) {
+			format = (String) legacyformat;
+			arguments = SerialUtils.readExternalImmutableList(in);
+			return;
+		}
+		int version = in.readUnsignedByte();
+		if (version != SDKReferenceSerialFormat.VERSION_STRING_TABLE) {
+			throw new InvalidObjectException("Unknown serialized format version: " + version);
+		}
+		SDKReferenceSerialFormat.Reader reader = new SDKReferenceSerialFormat.Reader(in);
+		format = reader.readString();
+		arguments = reader.readArguments();
 	}
 
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + ((arguments == null) ? 0 : arguments.hashCode());
-		result = prime * result + ((format == null) ? 0 : format.hashCode());
+		int result = hashCode;
+		if (result == 0) {
+			final int prime = 31;
+			result = 1;
+			result = prime * result + ((arguments == null) ? 0 : arguments.hashCode());
+			result = prime * result + ((format == null) ? 0 : format.hashCode());
+			hashCode = result;
+		}
 		return result;
 	}
 
@@ -87,6 +160,8 @@ public class FormattedSDKPropertyReference implements SDKPropertyReference, Exte
 		if (getClass() != obj.getClass())
 			return false;
 		FormattedSDKPropertyReference other = (FormattedSDKPropertyReference) obj;
+		if (hashCode != 0 && other.hashCode != 0 && hashCode != other.hashCode)
+			return false;
 		if (arguments == null) {
 			if (other.arguments != null)
 				return false;
@@ -100,6 +175,53 @@ public class FormattedSDKPropertyReference implements SDKPropertyReference, Exte
 		return true;
 	}
 
+	private static boolean appendFolded(StringBuilder nformat, List<SDKValueReference<?>> nargs, String format,
+			List<? extends SDKValueReference<?>> arguments) {
+		int formatstart = nformat.length();
+		int argsstart = nargs.size();
+		int argidx = 0;
+		int len = format.length();
+		for (int i = 0; i < len; i++) {
+			char c = format.charAt(i);
+			if (c != '%') {
+				nformat.append(c);
+				continue;
+			}
+			char spec = ++i < len ? format.charAt(i) : 0;
+			if (spec == '%' || spec == 'n') {
+				nformat.append('%').append(spec);
+				continue;
+			}
+			if (spec != 's' || argidx >= arguments.size()) {
+				//other specifiers may consume the arguments differently, don't fold
+				nformat.setLength(formatstart);
+				nargs.subList(argsstart, nargs.size()).clear();
+				return false;
+			}
+			SDKValueReference<?> arg = arguments.get(argidx++);
+			Class<?> argclass = arg == null ? null : arg.getClass();
+			if (argclass == ConstantSDKPropertyReference.class) {
+				String val = ((ConstantSDKPropertyReference) arg).getConstantValue();
+				nformat.append(val.replace("%", "%%"));
+			} else if (argclass == FormattedSDKPropertyReference.class) {
+				FormattedSDKPropertyReference nested = (FormattedSDKPropertyReference) arg;
+				if (!appendFolded(nformat, nargs, nested.format, nested.arguments)) {
+					nformat.append("%s");
+					nargs.add(arg);
+				}
+			} else {
+				nformat.append("%s");
+				nargs.add(arg);
+			}
+		}
+		if (argidx != arguments.size()) {
+			nformat.setLength(formatstart);
+			nargs.subList(argsstart, nargs.size()).clear();
+			return false;
+		}
+		return true;
+	}
+
 	@Override
 	public String toString() {
 		return getClass().getSimpleName() + "[" + (format != null ? "format=" + format + ", " : "")
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package saker.sdk.support.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import saker.build.file.path.SakerPath;
+
+/**
+ * Computes content fingerprints of SDK directories.
+ * <p>
+ * The fingerprint of a directory is a digest of the relative paths and content digests of all the files in it. The
+ * file digests are cached with the size and modification time of the files, and are only recomputed if they change.
+ * The directory listings are retrieved using {@link SDKDirectoryListingCache}, so unmodified directory trees are not
+ * walked again.
+ * <p>
+ * The files are read through a {@link FileChannel} with a fixed size buffer. They are not memory mapped, as a mapping
+ * cannot be released deterministically, and it would prevent the SDK files from being modified or deleted on some
+ * platforms.
+ * <p>
+ * The digests of the most recently used {@value #MAX_CACHED_FILE_DIGESTS} files are kept in memory for the lifetime of
+ * the build environment that loaded this class. (I.e. the build daemon.)
+ */
+public final class SDKContentFingerprints {
+	private static final String DIGEST_ALGORITHM = "SHA-256";
+	private static final int READ_BUFFER_SIZE = 64 * 1024;
+	private static final int MAX_CACHED_FILE_DIGESTS = 64 * 1024;
+
+	private static final Map<Path, FileDigest> FILE_DIGESTS = Collections
+			.synchronizedMap(new LinkedHashMap<Path, FileDigest>(1024, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Entry<Path, FileDigest> eldest) {
+					return size() > MAX_CACHED_FILE_DIGESTS;
+				}
+			});
+
+	private SDKContentFingerprints() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Computes the content fingerprint of the given local directory.
+	 * <p>
+	 * The files are read on the calling thread.
+	 * 
+	 * @param directory
+	 *            The path of the directory.
+	 * @return The fingerprint as a hexadecimal string.
+	 * @throws IOException
+	 *             If the directory cannot be read.
+	 */
+	public static String getDirectoryFingerprint(SakerPath directory) throws IOException {
+		Path localdir = Paths.get(directory.toString());
+		List<SakerPath> files = SDKDirectoryListingCache.getFiles(localdir);
+		ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+		MessageDigest digest = newDigest();
+		for (SakerPath file : files) {
+			String relative = file.toString();
+			byte[] filedigest = getFileDigest(localdir.resolve(relative), buffer);
+			digest.update(relative.getBytes(StandardCharsets.UTF_8));
+			//separate the path from the digest
+			digest.update((byte) 0);
+			digest.update(filedigest);
+		}
+		return toHexString(digest.digest());
+	}
+
+	private static byte[] getFileDigest(Path file, ByteBuffer buffer) throws IOException {
+		BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+		long size = attrs.size();
+		long modified = attrs.lastModifiedTime().toMillis();
+		FileDigest cached = FILE_DIGESTS.get(file);
+		if (cached != null && cached.size == size && cached.lastModified == modified) {
+			return cached.digest;
+		}
+		MessageDigest digest = newDigest();
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			while (true) {
+				buffer.clear();
+				if (channel.read(buffer) < 0) {
+					break;
+				}
+				buffer.flip();
+				digest.update(buffer);
+			}
+		}
+		byte[] result = digest.digest();
+		FILE_DIGESTS.put(file, new FileDigest(size, modified, result));
+		return result;
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance(DIGEST_ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			throw new AssertionError("Digest algorithm not found: " + DIGEST_ALGORITHM, e);
+		}
+	}
+
+	private static String toHexString(byte[] bytes) {
+		char[] result = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			result[i * 2] = Character.forDigit((bytes[i] >>> 4) & 0xF, 16);
+			result[i * 2 + 1] = Character.forDigit(bytes[i] & 0xF, 16);
+		}
+		return new String(result);
+	}
+
+	private static final class FileDigest {
+		protected final long size;
+		protected final long lastModified;
+		protected final byte[] digest;
+
+		public FileDigest(long size, long lastModified, byte[] digest) {
+			this.size = size;
+			this.lastModified = lastModified;
+			this.digest = digest;
+		}
+	}
+}
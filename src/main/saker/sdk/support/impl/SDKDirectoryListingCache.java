@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package saker.sdk.support.impl;
+
+import java.io.IOException;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import saker.build.file.path.SakerPath;
+
+/**
+ * Cache for the recursive file listings of SDK directories.
+ * <p>
+ * The listing records the last modification times of all the directories that were visited. Adding or removing a file
+ * in a directory changes its modification time, so a cached listing is reused as long as none of the directory
+ * modification times changed. Validation only needs to read the attributes of the directories instead of listing them
+ * again.
+ * <p>
+ * The directory tree is walked on the calling thread. Symbolic links are followed, but directories that were already
+ * visited on the current path are skipped to avoid cycles. Only the listings of the most recently used
+ * {@value #MAX_CACHED_LISTINGS} directories are kept.
+ */
+final class SDKDirectoryListingCache {
+	private static final int MAX_CACHED_LISTINGS = 16;
+
+	private static final Map<Path, DirectoryListing> LISTINGS = Collections
+			.synchronizedMap(new LinkedHashMap<Path, DirectoryListing>(MAX_CACHED_LISTINGS * 2, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Entry<Path, DirectoryListing> eldest) {
+					return size() > MAX_CACHED_LISTINGS;
+				}
+			});
+
+	private SDKDirectoryListingCache() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Gets the relative paths of all files under the given directory.
+	 *
+	 * @param directory
+	 *            The directory.
+	 * @return The files relative to the directory. Doesn't include directories.
+	 * @throws IOException
+	 *             If the listing failed.
+	 */
+	public static List<SakerPath> getFiles(Path directory) throws IOException {
+		DirectoryListing listing = LISTINGS.get(directory);
+		if (listing != null && listing.isValid()) {
+			return listing.files;
+		}
+		try {
+			listing = list(directory);
+		} catch (IOException e) {
+			LISTINGS.remove(directory);
+			throw e;
+		}
+		LISTINGS.put(directory, listing);
+		return listing.files;
+	}
+
+	private static DirectoryListing list(Path directory) throws IOException {
+		Map<Path, Long> directorymodifications = new HashMap<>();
+		List<SakerPath> files = new ArrayList<>();
+		Files.walkFileTree(directory, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+				new SimpleFileVisitor<Path>() {
+					@Override
+					public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+						//the attributes are read before listing, so concurrent modifications invalidate the listing
+						directorymodifications.put(dir, attrs.lastModifiedTime().toMillis());
+						return FileVisitResult.CONTINUE;
+					}
+
+					@Override
+					public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+						if (file.equals(directory)) {
+							throw new NotDirectoryException(file.toString());
+						}
+						if (attrs.isSymbolicLink()) {
+							//broken link, the attributes of the target couldn't be read
+							return FileVisitResult.CONTINUE;
+						}
+						files.add(SakerPath.valueOf(directory.relativize(file)));
+						return FileVisitResult.CONTINUE;
+					}
+
+					@Override
+					public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
+						if (exc instanceof FileSystemLoopException
+								|| (exc instanceof NoSuchFileException && !file.equals(directory))) {
+							//symbolic link cycle, or deleted meanwhile
+							return FileVisitResult.CONTINUE;
+						}
+						throw exc;
+					}
+				});
+		Collections.sort(files);
+		return new DirectoryListing(directorymodifications, Collections.unmodifiableList(files));
+	}
+
+	private static final class DirectoryListing {
+		protected final Map<Path, Long> directoryModifications;
+		protected final List<SakerPath> files;
+
+		public DirectoryListing(Map<Path, Long> directoryModifications, List<SakerPath> files) {
+			this.directoryModifications = directoryModifications;
+			this.files = files;
+		}
+
+		public boolean isValid() {
+			for (Entry<Path, Long> entry : directoryModifications.entrySet()) {
+				try {
+					if (Files.getLastModifiedTime(entry.getKey()).toMillis() != entry.getValue()) {
+						return false;
+					}
+				} catch (IOException e) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
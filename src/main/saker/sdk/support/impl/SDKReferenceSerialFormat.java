@@ -0,0 +1,263 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package saker.sdk.support.impl;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import saker.build.file.path.SakerPath;
+import saker.sdk.support.api.SDKValueReference;
+
+/**
+ * Compact serialization format for SDK value reference graphs.
+ * <p>
+ * The format writes the well known reference types of this package with type tags, and encodes the strings of them
+ * (SDK names, identifiers, relative paths, format strings, constants) using a string table that is built during the
+ * serialization of the graph. Each string is written only once, subsequent occurrences are written as back-references
+ * to the table. The strings are not limited to the 65535 byte limit of {@link ObjectOutput#writeUTF(String)}.
+ * <p>
+ * Unknown reference types are written using {@link ObjectOutput#writeObject(Object)}.
+ */
+final class SDKReferenceSerialFormat {
+	/**
+	 * The format version that uses string tables.
+	 */
+	public static final int VERSION_STRING_TABLE = 1;
+
+	private static final int TAG_OBJECT = 0;
+	private static final int TAG_PATH = 1;
+	private static final int TAG_PROPERTY = 2;
+	private static final int TAG_FORMATTED = 3;
+	private static final int TAG_CONSTANT = 4;
+
+	private static final int STRING_NULL = 0;
+	private static final int STRING_NEW = 1;
+	private static final int STRING_BACKREFERENCE_OFFSET = 2;
+
+	/**
+	 * The maximum number of chars that are written with a single {@link DataOutput#writeUTF(String)} call.
+	 * <p>
+	 * A char is encoded in at most 3 bytes, so a chunk always fits in the 65535 byte limit of the modified UTF-8
+	 * encoding.
+	 */
+	private static final int UTF_CHUNK_LENGTH = 65535 / 3;
+
+	private SDKReferenceSerialFormat() {
+		throw new UnsupportedOperationException();
+	}
+
+	public static void writeCompactInt(DataOutput out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	public static int readCompactInt(DataInput in) throws IOException {
+		int result = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = in.readUnsignedByte();
+			result |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return result;
+			}
+		}
+		throw new InvalidObjectException("Malformed compact integer.");
+	}
+
+	/**
+	 * Writes a non-<code>null</code> string without the 65535 byte limit of {@link DataOutput#writeUTF(String)}.
+	 * <p>
+	 * The length of the string is written first, then the string is written in chunks using the modified UTF-8
+	 * encoding. Strings that fit in a single chunk take only a byte more than {@link DataOutput#writeUTF(String)}.
+	 */
+	public static void writeLongUTF(DataOutput out, String s) throws IOException {
+		int len = s.length();
+		writeCompactInt(out, len);
+		for (int i = 0; i < len; i += UTF_CHUNK_LENGTH) {
+			out.writeUTF(s.substring(i, Math.min(len, i + UTF_CHUNK_LENGTH)));
+		}
+	}
+
+	/**
+	 * Reads a string that was written using {@link #writeLongUTF(DataOutput, String)}.
+	 */
+	public static String readLongUTF(DataInput in) throws IOException {
+		int len = readCompactInt(in);
+		if (len <= UTF_CHUNK_LENGTH) {
+			String s = len == 0 ? "" : in.readUTF();
+			if (s.length() != len) {
+				throw new InvalidObjectException("Malformed string, length mismatch: " + s.length() + " for " + len);
+			}
+			return s;
+		}
+		//multiple chunks
+		StringBuilder sb = new StringBuilder(len);
+		while (sb.length() < len) {
+			String chunk = in.readUTF();
+			if (chunk.isEmpty() || chunk.length() > UTF_CHUNK_LENGTH) {
+				throw new InvalidObjectException("Malformed string chunk of length: " + chunk.length());
+			}
+			sb.append(chunk);
+		}
+		if (sb.length() != len) {
+			throw new InvalidObjectException("Malformed string, length mismatch: " + sb.length() + " for " + len);
+		}
+		return sb.toString();
+	}
+
+	public static final class Writer {
+		private final ObjectOutput out;
+		private final Map<String, Integer> stringTable = new HashMap<>();
+
+		public Writer(ObjectOutput out) {
+			this.out = out;
+		}
+
+		public void writeString(String s) throws IOException {
+			if (s == null) {
+				writeCompactInt(out, STRING_NULL);
+				return;
+			}
+			Integer idx = stringTable.putIfAbsent(s, stringTable.size());
+			if (idx != null) {
+				writeCompactInt(out, idx + STRING_BACKREFERENCE_OFFSET);
+				return;
+			}
+			writeCompactInt(out, STRING_NEW);
+			writeLongUTF(out, s);
+		}
+
+		public void writeFormatted(FormattedSDKPropertyReference ref) throws IOException {
+			writeString(ref.getFormat());
+			List<? extends SDKValueReference<?>> args = ref.getArguments();
+			writeCompactInt(out, args.size());
+			for (SDKValueReference<?> arg : args) {
+				writeValueReference(arg);
+			}
+		}
+
+		@SuppressWarnings("deprecation")
+		public void writeValueReference(SDKValueReference<?> ref) throws IOException {
+			//check the exact classes, as subclasses may have additional state
+			Class<?> refclass = ref == null ? null : ref.getClass();
+			if (refclass == SimpleSDKPathReference.class) {
+				SimpleSDKPathReference pathref = (SimpleSDKPathReference) ref;
+				out.writeByte(TAG_PATH);
+				writeString(pathref.getSDKName());
+				writeString(pathref.getPathIdentifier());
+				SakerPath relative = pathref.getRelative();
+				writeString(relative == null ? null : relative.toString());
+			} else if (refclass == SimpleSDKPropertyReference.class) {
+				SimpleSDKPropertyReference propref = (SimpleSDKPropertyReference) ref;
+				out.writeByte(TAG_PROPERTY);
+				writeString(propref.getSDKName());
+				writeString(propref.getPropertyIdentifier());
+			} else if (refclass == ConstantSDKPropertyReference.class) {
+				out.writeByte(TAG_CONSTANT);
+				writeString(((ConstantSDKPropertyReference) ref).getConstantValue());
+			} else if (refclass == FormattedSDKPropertyReference.class) {
+				out.writeByte(TAG_FORMATTED);
+				writeFormatted((FormattedSDKPropertyReference) ref);
+			} else {
+				out.writeByte(TAG_OBJECT);
+				out.writeObject(ref);
+			}
+		}
+	}
+
+	public static final class Reader {
+		private final ObjectInput in;
+		private final List<String> stringTable = new ArrayList<>();
+
+		public Reader(ObjectInput in) {
+			this.in = in;
+		}
+
+		public String readString() throws IOException {
+			int v = readCompactInt(in);
+			switch (v) {
+				case STRING_NULL: {
+					return null;
+				}
+				case STRING_NEW: {
+					String s = readLongUTF(in);
+					stringTable.add(s);
+					return s;
+				}
+				default: {
+					int idx = v - STRING_BACKREFERENCE_OFFSET;
+					if (idx >= stringTable.size()) {
+						throw new InvalidObjectException("Invalid string back-reference: " + idx);
+					}
+					return stringTable.get(idx);
+				}
+			}
+		}
+
+		public List<SDKValueReference<?>> readArguments() throws IOException, ClassNotFoundException {
+			int size = readCompactInt(in);
+			SDKValueReference<?>[] args = new SDKValueReference<?>[size];
+			for (int i = 0; i < size; i++) {
+				args[i] = readValueReference();
+			}
+			return Collections.unmodifiableList(Arrays.asList(args));
+		}
+
+		public SDKValueReference<?> readValueReference() throws IOException, ClassNotFoundException {
+			int tag = in.readUnsignedByte();
+			switch (tag) {
+				case TAG_PATH: {
+					String sdkname = readString();
+					String identifier = readString();
+					String relative = readString();
+					return new SimpleSDKPathReference(sdkname, identifier,
+							relative == null ? null : SakerPath.valueOf(relative));
+				}
+				case TAG_PROPERTY: {
+					String sdkname = readString();
+					String identifier = readString();
+					return new SimpleSDKPropertyReference(sdkname, identifier);
+				}
+				case TAG_FORMATTED: {
+					String format = readString();
+					List<SDKValueReference<?>> args = readArguments();
+					return new FormattedSDKPropertyReference(format, args);
+				}
+				case TAG_CONSTANT: {
+					return new ConstantSDKPropertyReference(readString());
+				}
+				case TAG_OBJECT: {
+					return (SDKValueReference<?>) in.readObject();
+				}
+				default: {
+					throw new InvalidObjectException("Unknown SDK reference tag: " + tag);
+				}
+			}
+		}
+	}
+}
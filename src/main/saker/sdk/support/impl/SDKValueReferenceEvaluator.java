@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package saker.sdk.support.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import saker.sdk.support.api.SDKReference;
+import saker.sdk.support.api.SDKValueReference;
+
+/**
+ * Evaluates SDK value references against a given SDK map, and computes each distinct reference at most once.
+ * <p>
+ * The results are memoized by the references, so equal references that are present multiple times in the evaluated
+ * reference graphs share the result. The composite references of this package evaluate their arguments using the
+ * evaluator, so the sharing also applies to the nested references. Failures are memoized as well.
+ * <p>
+ * The class is not thread safe.
+ * 
+ * @see SDKValueReferenceMemos
+ */
+public final class SDKValueReferenceEvaluator {
+	private static final Object NULL_RESULT = new Object();
+
+	private final Map<String, ? extends SDKReference> sdks;
+	private final Map<SDKValueReference<?>, Object> results;
+
+	public SDKValueReferenceEvaluator(Map<String, ? extends SDKReference> sdks) {
+		this(sdks, new HashMap<>());
+	}
+
+	SDKValueReferenceEvaluator(Map<String, ? extends SDKReference> sdks, Map<SDKValueReference<?>, Object> results) {
+		this.sdks = sdks;
+		this.results = results;
+	}
+
+	public Object evaluate(SDKValueReference<?> ref) throws Exception {
+		Object result = results.get(ref);
+		if (result == null) {
+			try {
+				result = compute(ref);
+			} catch (Exception e) {
+				results.put(ref, new Failure(e));
+				throw e;
+			}
+			results.put(ref, result == null ? NULL_RESULT : result);
+			return result;
+		}
+		if (result == NULL_RESULT) {
+			return null;
+		}
+		if (result instanceof Failure) {
+			throw ((Failure) result).exception;
+		}
+		return result;
+	}
+
+	private Object compute(SDKValueReference<?> ref) throws Exception {
+		//check the exact classes, as subclasses may override getValue
+		Class<?> refclass = ref.getClass();
+		if (refclass == FormattedSDKPropertyReference.class) {
+			return ((FormattedSDKPropertyReference) ref).evaluate(this);
+		}
+		if (refclass == ArgumentListSDKPropertyCollectionReference.class) {
+			return ((ArgumentListSDKPropertyCollectionReference) ref).evaluate(this);
+		}
+		if (refclass == ContentFingerprintSDKPropertyReference.class) {
+			return ((ContentFingerprintSDKPropertyReference) ref).evaluate(this);
+		}
+		return ref.getValue(sdks);
+	}
+
+	private static final class Failure {
+		protected final Exception exception;
+
+		public Failure(Exception exception) {
+			this.exception = exception;
+		}
+	}
+}
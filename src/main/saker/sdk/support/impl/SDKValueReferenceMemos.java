@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package saker.sdk.support.impl;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import saker.sdk.support.api.SDKReference;
+import saker.sdk.support.api.SDKValueReference;
+
+/**
+ * Memoizes the results of SDK value reference evaluations for SDK map instances.
+ * <p>
+ * The memo tables are keyed by the identity of the SDK maps, and the maps are weakly referenced. A memo table is
+ * dropped when the associated SDK map is garbage collected. The memo tables don't reference the SDK maps, so they
+ * don't keep them reachable.
+ * <p>
+ * The evaluations are performed using {@link SDKValueReferenceEvaluator}, so the nested references share the memo
+ * table as well.
+ */
+public final class SDKValueReferenceMemos {
+	private static final ReferenceQueue<Object> QUEUE = new ReferenceQueue<>();
+	private static final Map<SDKMapKey, Map<SDKValueReference<?>, Object>> MEMOS = new ConcurrentHashMap<>();
+
+	private SDKValueReferenceMemos() {
+		throw new UnsupportedOperationException();
+	}
+
+	public static Object evaluate(Map<String, ? extends SDKReference> sdks, SDKValueReference<?> ref)
+			throws Exception {
+		expungeStaleEntries();
+		Map<SDKValueReference<?>, Object> results = MEMOS.computeIfAbsent(new SDKMapKey(sdks, QUEUE),
+				k -> new HashMap<>());
+		synchronized (results) {
+			return new SDKValueReferenceEvaluator(sdks, results).evaluate(ref);
+		}
+	}
+
+	private static void expungeStaleEntries() {
+		for (Reference<?> ref; (ref = QUEUE.poll()) != null;) {
+			MEMOS.remove(ref);
+		}
+	}
+
+	private static final class SDKMapKey extends WeakReference<Object> {
+		private final int hash;
+
+		public SDKMapKey(Object referent, ReferenceQueue<Object> queue) {
+			super(referent, queue);
+			this.hash = System.identityHashCode(referent);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof SDKMapKey)) {
+				return false;
+			}
+			Object referent = get();
+			//cleared keys are only equal to themselves
+			return referent != null && referent == ((SDKMapKey) obj).get();
+		}
+	}
+}
@@ -0,0 +1,574 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package saker.sdk.support.impl;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+import saker.sdk.support.api.PersistentSDKNameMap;
+import saker.sdk.support.api.SDKSupportUtils;
+
+/**
+ * {@link PersistentSDKNameMap} implementation backed by an immutable AVL tree.
+ * <p>
+ * Modifications copy the nodes on the path to the modified entry, and share all other nodes with the original tree.
+ * Each node caches the size and the hash code of its subtree.
+ * <p>
+ * The range views and descending views are created from a snapshot of the map, which copies the entries in linear
+ * time. As the map is immutable, they are semantically views of it.
+ * <p>
+ * The hash code is not used to short-circuit equality checks. Keys that only differ in case are equal according to the
+ * SDK name comparator, but have different hash codes.
+ * 
+ * @param <V>
+ *            The value type.
+ */
+public final class SimplePersistentSDKNameMap<V> extends AbstractMap<String, V>
+		implements PersistentSDKNameMap<V>, Externalizable {
+	private static final long serialVersionUID = 1L;
+
+	@SuppressWarnings("rawtypes")
+	private static final SimplePersistentSDKNameMap EMPTY = new SimplePersistentSDKNameMap<>();
+
+	private static final Comparator<String> COMPARATOR = SDKSupportUtils.getSDKNameComparator();
+
+	private Node<V> root;
+
+	/**
+	 * For {@link Externalizable}.
+	 */
+	public SimplePersistentSDKNameMap() {
+	}
+
+	private SimplePersistentSDKNameMap(Node<V> root) {
+		this.root = root;
+	}
+
+	@SuppressWarnings("unchecked")
+	public static <V> SimplePersistentSDKNameMap<V> empty() {
+		return EMPTY;
+	}
+
+	@Override
+	public PersistentSDKNameMap<V> with(String sdkname, V value) throws NullPointerException {
+		Objects.requireNonNull(sdkname, "sdk name");
+		return derive(put(root, sdkname, value));
+	}
+
+	@Override
+	public PersistentSDKNameMap<V> without(String sdkname) throws NullPointerException {
+		Objects.requireNonNull(sdkname, "sdk name");
+		return derive(remove(root, sdkname));
+	}
+
+	@Override
+	public int size() {
+		return size(root);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return root == null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return findNode(key) != null;
+	}
+
+	@Override
+	public V get(Object key) {
+		Node<V> n = findNode(key);
+		return n == null ? null : n.value;
+	}
+
+	@Override
+	public Comparator<? super String> comparator() {
+		return COMPARATOR;
+	}
+
+	@Override
+	public Set<Entry<String, V>> entrySet() {
+		return new EntrySet();
+	}
+
+	@Override
+	public Entry<String, V> firstEntry() {
+		Node<V> n = root;
+		if (n == null) {
+			return null;
+		}
+		while (n.left != null) {
+			n = n.left;
+		}
+		return n;
+	}
+
+	@Override
+	public Entry<String, V> lastEntry() {
+		Node<V> n = root;
+		if (n == null) {
+			return null;
+		}
+		while (n.right != null) {
+			n = n.right;
+		}
+		return n;
+	}
+
+	@Override
+	public String firstKey() {
+		return keyOrThrow(firstEntry());
+	}
+
+	@Override
+	public String lastKey() {
+		return keyOrThrow(lastEntry());
+	}
+
+	@Override
+	public Entry<String, V> lowerEntry(String key) {
+		Node<V> result = null;
+		for (Node<V> n = root; n != null;) {
+			if (COMPARATOR.compare(key, n.key) > 0) {
+				result = n;
+				n = n.right;
+			} else {
+				n = n.left;
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public Entry<String, V> floorEntry(String key) {
+		Node<V> result = null;
+		for (Node<V> n = root; n != null;) {
+			int cmp = COMPARATOR.compare(key, n.key);
+			if (cmp == 0) {
+				return n;
+			}
+			if (cmp > 0) {
+				result = n;
+				n = n.right;
+			} else {
+				n = n.left;
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public Entry<String, V> ceilingEntry(String key) {
+		Node<V> result = null;
+		for (Node<V> n = root; n != null;) {
+			int cmp = COMPARATOR.compare(key, n.key);
+			if (cmp == 0) {
+				return n;
+			}
+			if (cmp < 0) {
+				result = n;
+				n = n.left;
+			} else {
+				n = n.right;
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public Entry<String, V> higherEntry(String key) {
+		Node<V> result = null;
+		for (Node<V> n = root; n != null;) {
+			if (COMPARATOR.compare(key, n.key) < 0) {
+				result = n;
+				n = n.left;
+			} else {
+				n = n.right;
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public String lowerKey(String key) {
+		return keyOrNull(lowerEntry(key));
+	}
+
+	@Override
+	public String floorKey(String key) {
+		return keyOrNull(floorEntry(key));
+	}
+
+	@Override
+	public String ceilingKey(String key) {
+		return keyOrNull(ceilingEntry(key));
+	}
+
+	@Override
+	public String higherKey(String key) {
+		return keyOrNull(higherEntry(key));
+	}
+
+	@Override
+	public Entry<String, V> pollFirstEntry() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Entry<String, V> pollLastEntry() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public NavigableMap<String, V> descendingMap() {
+		return snapshot().descendingMap();
+	}
+
+	@Override
+	public NavigableSet<String> navigableKeySet() {
+		return snapshot().navigableKeySet();
+	}
+
+	@Override
+	public NavigableSet<String> descendingKeySet() {
+		return snapshot().descendingKeySet();
+	}
+
+	@Override
+	public NavigableMap<String, V> subMap(String fromKey, boolean fromInclusive, String toKey, boolean toInclusive) {
+		return snapshot().subMap(fromKey, fromInclusive, toKey, toInclusive);
+	}
+
+	@Override
+	public NavigableMap<String, V> headMap(String toKey, boolean inclusive) {
+		return snapshot().headMap(toKey, inclusive);
+	}
+
+	@Override
+	public NavigableMap<String, V> tailMap(String fromKey, boolean inclusive) {
+		return snapshot().tailMap(fromKey, inclusive);
+	}
+
+	@Override
+	public NavigableMap<String, V> subMap(String fromKey, String toKey) {
+		return subMap(fromKey, true, toKey, false);
+	}
+
+	@Override
+	public NavigableMap<String, V> headMap(String toKey) {
+		return headMap(toKey, false);
+	}
+
+	@Override
+	public NavigableMap<String, V> tailMap(String fromKey) {
+		return tailMap(fromKey, true);
+	}
+
+	@Override
+	public void writeExternal(ObjectOutput out) throws IOException {
+		out.writeInt(size(root));
+		for (Entry<String, V> entry : entrySet()) {
+			out.writeUTF(entry.getKey());
+			out.writeObject(entry.getValue());
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+		int size = in.readInt();
+		String[] keys = new String[size];
+		Object[] values = new Object[size];
+		for (int i = 0; i < size; i++) {
+			keys[i] = in.readUTF();
+			values[i] = in.readObject();
+		}
+		//the entries were written in order, so the tree can be built directly
+		root = (Node<V>) build(keys, values, 0, size);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash(root);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o instanceof SimplePersistentSDKNameMap) {
+			SimplePersistentSDKNameMap<?> other = (SimplePersistentSDKNameMap<?>) o;
+			if (root == other.root) {
+				return true;
+			}
+			if (size(root) != size(other.root)) {
+				return false;
+			}
+		}
+		return super.equals(o);
+	}
+
+	private SimplePersistentSDKNameMap<V> derive(Node<V> nroot) {
+		if (nroot == root) {
+			return this;
+		}
+		if (nroot == null) {
+			return empty();
+		}
+		return new SimplePersistentSDKNameMap<>(nroot);
+	}
+
+	private NavigableMap<String, V> snapshot() {
+		return Collections.unmodifiableNavigableMap(new TreeMap<>(this));
+	}
+
+	private Node<V> findNode(Object key) {
+		if (!(key instanceof String)) {
+			return null;
+		}
+		String k = (String) key;
+		for (Node<V> n = root; n != null;) {
+			int cmp = COMPARATOR.compare(k, n.key);
+			if (cmp == 0) {
+				return n;
+			}
+			n = cmp < 0 ? n.left : n.right;
+		}
+		return null;
+	}
+
+	private static String keyOrNull(Entry<String, ?> entry) {
+		return entry == null ? null : entry.getKey();
+	}
+
+	private static String keyOrThrow(Entry<String, ?> entry) {
+		if (entry == null) {
+			throw new NoSuchElementException();
+		}
+		return entry.getKey();
+	}
+
+	private static int height(Node<?> n) {
+		return n == null ? 0 : n.height;
+	}
+
+	private static int size(Node<?> n) {
+		return n == null ? 0 : n.size;
+	}
+
+	private static int hash(Node<?> n) {
+		return n == null ? 0 : n.hash;
+	}
+
+	private static <V> Node<V> put(Node<V> n, String key, V value) {
+		if (n == null) {
+			return new Node<>(key, value, null, null);
+		}
+		int cmp = COMPARATOR.compare(key, n.key);
+		if (cmp < 0) {
+			Node<V> left = put(n.left, key, value);
+			return left == n.left ? n : balance(n.key, n.value, left, n.right);
+		}
+		if (cmp > 0) {
+			Node<V> right = put(n.right, key, value);
+			return right == n.right ? n : balance(n.key, n.value, n.left, right);
+		}
+		if (n.value == value) {
+			return n;
+		}
+		//keep the existing key, similar to TreeMap
+		return new Node<>(n.key, value, n.left, n.right);
+	}
+
+	private static <V> Node<V> remove(Node<V> n, String key) {
+		if (n == null) {
+			return null;
+		}
+		int cmp = COMPARATOR.compare(key, n.key);
+		if (cmp < 0) {
+			Node<V> left = remove(n.left, key);
+			return left == n.left ? n : balance(n.key, n.value, left, n.right);
+		}
+		if (cmp > 0) {
+			Node<V> right = remove(n.right, key);
+			return right == n.right ? n : balance(n.key, n.value, n.left, right);
+		}
+		if (n.left == null) {
+			return n.right;
+		}
+		if (n.right == null) {
+			return n.left;
+		}
+		Node<V> successor = n.right;
+		while (successor.left != null) {
+			successor = successor.left;
+		}
+		return balance(successor.key, successor.value, n.left, removeFirst(n.right));
+	}
+
+	private static <V> Node<V> removeFirst(Node<V> n) {
+		if (n.left == null) {
+			return n.right;
+		}
+		return balance(n.key, n.value, removeFirst(n.left), n.right);
+	}
+
+	private static <V> Node<V> balance(String key, V value, Node<V> left, Node<V> right) {
+		int lh = height(left);
+		int rh = height(right);
+		if (lh > rh + 1) {
+			if (height(left.left) >= height(left.right)) {
+				return new Node<>(left.key, left.value, left.left, new Node<>(key, value, left.right, right));
+			}
+			Node<V> lr = left.right;
+			return new Node<>(lr.key, lr.value, new Node<>(left.key, left.value, left.left, lr.left),
+					new Node<>(key, value, lr.right, right));
+		}
+		if (rh > lh + 1) {
+			if (height(right.right) >= height(right.left)) {
+				return new Node<>(right.key, right.value, new Node<>(key, value, left, right.left), right.right);
+			}
+			Node<V> rl = right.left;
+			return new Node<>(rl.key, rl.value, new Node<>(key, value, left, rl.left),
+					new Node<>(right.key, right.value, rl.right, right.right));
+		}
+		return new Node<>(key, value, left, right);
+	}
+
+	private static Node<Object> build(String[] keys, Object[] values, int start, int end) {
+		if (start >= end) {
+			return null;
+		}
+		int mid = (start + end) >>> 1;
+		return new Node<>(keys[mid], values[mid], build(keys, values, start, mid), build(keys, values, mid + 1, end));
+	}
+
+	private static final class Node<V> implements Map.Entry<String, V> {
+		protected final String key;
+		protected final V value;
+		protected final Node<V> left;
+		protected final Node<V> right;
+		protected final int height;
+		protected final int size;
+		/**
+		 * The sum of the entry hash codes in this subtree, as defined by {@link Map#hashCode()}.
+		 */
+		protected final int hash;
+
+		public Node(String key, V value, Node<V> left, Node<V> right) {
+			this.key = key;
+			this.value = value;
+			this.left = left;
+			this.right = right;
+			this.height = Math.max(height(left), height(right)) + 1;
+			this.size = size(left) + size(right) + 1;
+			this.hash = hash(left) + hash(right) + (key.hashCode() ^ Objects.hashCode(value));
+		}
+
+		@Override
+		public String getKey() {
+			return key;
+		}
+
+		@Override
+		public V getValue() {
+			return value;
+		}
+
+		@Override
+		public V setValue(V value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public int hashCode() {
+			return key.hashCode() ^ Objects.hashCode(value);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Map.Entry))
+				return false;
+			Map.Entry<?, ?> other = (Map.Entry<?, ?>) obj;
+			return key.equals(other.getKey()) && Objects.equals(value, other.getValue());
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + value;
+		}
+	}
+
+	private final class EntrySet extends AbstractSet<Entry<String, V>> {
+		@Override
+		public Iterator<Entry<String, V>> iterator() {
+			return new EntryIterator<>(root);
+		}
+
+		@Override
+		public int size() {
+			return SimplePersistentSDKNameMap.size(root);
+		}
+	}
+
+	private static final class EntryIterator<V> implements Iterator<Entry<String, V>> {
+		private final ArrayDeque<Node<V>> stack = new ArrayDeque<>();
+
+		public EntryIterator(Node<V> root) {
+			pushLeft(root);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !stack.isEmpty();
+		}
+
+		@Override
+		public Entry<String, V> next() {
+			Node<V> n = stack.pollFirst();
+			if (n == null) {
+				throw new NoSuchElementException();
+			}
+			pushLeft(n.right);
+			return n;
+		}
+
+		private void pushLeft(Node<V> n) {
+			for (; n != null; n = n.left) {
+				stack.addFirst(n);
+			}
+		}
+	}
+}
@@ -40,8 +40,8 @@ public class SimpleSDKPathReference implements SDKPathReference, Externalizable
 	}
 
 	public SimpleSDKPathReference(String sdkName, String directoryIdentifier, SakerPath relative) {
-		this.sdkName = sdkName;
-		this.pathIdentifier = directoryIdentifier;
+		this.sdkName = canonicalize(sdkName);
+		this.pathIdentifier = canonicalize(directoryIdentifier);
 		if (relative != null) {
 			SakerPathFiles.requireRelativePath(relative);
 			this.relative = SakerPath.EMPTY.equals(relative) ? null : relative;
@@ -64,6 +64,14 @@ public class SimpleSDKPathReference implements SDKPathReference, Externalizable
 		return result;
 	}
 
+	String getPathIdentifier() {
+		return pathIdentifier;
+	}
+
+	SakerPath getRelative() {
+		return relative;
+	}
+
 	@Override
 	public void writeExternal(ObjectOutput out) throws IOException {
 		out.writeObject(sdkName);
@@ -73,8 +81,8 @@ public class SimpleSDKPathReference implements SDKPathReference, Externalizable
 
 	@Override
 	public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
-		sdkName = (String) in.readObject();
-		pathIdentifier = (String) in.readObject();
+		sdkName = canonicalize((String) in.readObject());
+		pathIdentifier = canonicalize((String) in.readObject());
 		relative = (SakerPath) in.readObject();
 	}
 
@@ -113,6 +121,12 @@ public class SimpleSDKPathReference implements SDKPathReference, Externalizable
 		return true;
 	}
 
+	static String canonicalize(String s) {
+		//the SDK names and identifiers are repeated in a lot of references
+		//canonicalize them, so object streams write back-references instead of the same strings
+		return s == null ? null : s.intern();
+	}
+
 	@Override
 	public String toString() {
 		return getClass().getSimpleName() + "[" + sdkName + ":" + pathIdentifier
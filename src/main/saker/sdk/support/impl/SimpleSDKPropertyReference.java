@@ -37,8 +37,8 @@ public class SimpleSDKPropertyReference implements SDKPropertyReference, Externa
 	}
 
 	public SimpleSDKPropertyReference(String sdkName, String directoryIdentifier) {
-		this.sdkName = sdkName;
-		this.propertyIdentifier = directoryIdentifier;
+		this.sdkName = SimpleSDKPathReference.canonicalize(sdkName);
+		this.propertyIdentifier = SimpleSDKPathReference.canonicalize(directoryIdentifier);
 	}
 
 	@Override
@@ -53,6 +53,10 @@ public class SimpleSDKPropertyReference implements SDKPropertyReference, Externa
 		return sdk.getProperty(propertyIdentifier);
 	}
 
+	String getPropertyIdentifier() {
+		return propertyIdentifier;
+	}
+
 	@Override
 	public void writeExternal(ObjectOutput out) throws IOException {
 		out.writeObject(sdkName);
@@ -61,8 +65,8 @@ public class SimpleSDKPropertyReference implements SDKPropertyReference, Externa
 
 	@Override
 	public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
-		sdkName = (String) in.readObject();
-		propertyIdentifier = (String) in.readObject();
+		sdkName = SimpleSDKPathReference.canonicalize((String) in.readObject());
+		propertyIdentifier = SimpleSDKPathReference.canonicalize((String) in.readObject());
 	}
 
 	@Override
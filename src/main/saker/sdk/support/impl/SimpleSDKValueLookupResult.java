@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package saker.sdk.support.impl;
+
+import java.util.Map;
+
+import saker.build.thirdparty.saker.util.ObjectUtils;
+import saker.sdk.support.api.SDKPathReference;
+import saker.sdk.support.api.SDKPropertyReference;
+import saker.sdk.support.api.SDKReference;
+import saker.sdk.support.api.SDKValueLookupResult;
+import saker.sdk.support.api.SDKValueReference;
+import saker.sdk.support.api.exc.SDKManagementException;
+import saker.sdk.support.api.exc.SDKNotFoundException;
+import saker.sdk.support.api.exc.SDKPathNotFoundException;
+import saker.sdk.support.api.exc.SDKPropertyNotFoundException;
+import saker.sdk.support.api.exc.SDKValueNotFoundException;
+
+/**
+ * {@link SDKValueLookupResult} implementation that creates the failure exceptions lazily.
+ * <p>
+ * The misses of the well known reference types of this package are detected without calling
+ * {@link SDKValueReference#getValue(Map)}, so no exceptions are created for them during the lookup.
+ */
+public final class SimpleSDKValueLookupResult<T> implements SDKValueLookupResult<T> {
+	private final T value;
+	private final SDKValueReference<?> reference;
+	private final String missingSDKName;
+	private final Exception cause;
+
+	private SimpleSDKValueLookupResult(T value, SDKValueReference<?> reference, String missingSDKName,
+			Exception cause) {
+		this.value = value;
+		this.reference = reference;
+		this.missingSDKName = missingSDKName;
+		this.cause = cause;
+	}
+
+	@SuppressWarnings({ "unchecked", "deprecation" })
+	public static <T> SimpleSDKValueLookupResult<T> lookup(SDKValueReference<T> ref,
+			Map<String, ? extends SDKReference> sdks) {
+		//check the exact classes, as subclasses may override getValue
+		Class<?> refclass = ref.getClass();
+		Object result;
+		try {
+			if (refclass == SimpleSDKPathReference.class) {
+				SimpleSDKPathReference pathref = (SimpleSDKPathReference) ref;
+				SDKReference sdk = ObjectUtils.getMapValue(sdks, pathref.getSDKName());
+				if (sdk == null) {
+					return new SimpleSDKValueLookupResult<>(null, ref, pathref.getSDKName(), null);
+				}
+				result = pathref.getPath(sdk);
+			} else if (refclass == SimpleSDKPropertyReference.class) {
+				SimpleSDKPropertyReference propref = (SimpleSDKPropertyReference) ref;
+				SDKReference sdk = ObjectUtils.getMapValue(sdks, propref.getSDKName());
+				if (sdk == null) {
+					return new SimpleSDKValueLookupResult<>(null, ref, propref.getSDKName(), null);
+				}
+				result = propref.getProperty(sdk);
+			} else if (refclass == ConstantSDKPropertyReference.class) {
+				result = ((ConstantSDKPropertyReference) ref).getConstantValue();
+			} else if (refclass == FallbackSDKPathReference.class) {
+				result = FallbackSDKValueReferences
+						.getFirstAvailable(((FallbackSDKPathReference) ref).getAlternatives(), sdks);
+			} else if (refclass == FallbackSDKPropertyReference.class) {
+				result = FallbackSDKValueReferences
+						.getFirstAvailable(((FallbackSDKPropertyReference) ref).getAlternatives(), sdks);
+			} else {
+				result = ref.getValue(sdks);
+			}
+		} catch (Exception e) {
+			return new SimpleSDKValueLookupResult<>(null, ref, null, e);
+		}
+		return new SimpleSDKValueLookupResult<>((T) result, ref, null, null);
+	}
+
+	@Override
+	public boolean isFound() {
+		return value != null;
+	}
+
+	@Override
+	public T getValue() {
+		return value;
+	}
+
+	@Override
+	public SDKManagementException getFailure() {
+		if (value != null) {
+			return null;
+		}
+		if (missingSDKName != null) {
+			return SDKNotFoundException.createStackless(missingSDKName, null);
+		}
+		String message = getNotFoundMessage();
+		if (reference instanceof SDKPathReference) {
+			return SDKPathNotFoundException.createStackless(message, cause);
+		}
+		if (reference instanceof SDKPropertyReference) {
+			return SDKPropertyNotFoundException.createStackless(message, cause);
+		}
+		return SDKValueNotFoundException.createStackless(message, cause);
+	}
+
+	@Override
+	public T getValueOrThrow() throws SDKNotFoundException, SDKValueNotFoundException {
+		if (value != null) {
+			return value;
+		}
+		if (missingSDKName != null) {
+			throw new SDKNotFoundException(missingSDKName);
+		}
+		String message = getNotFoundMessage();
+		if (reference instanceof SDKPathReference) {
+			throw new SDKPathNotFoundException(message, cause);
+		}
+		if (reference instanceof SDKPropertyReference) {
+			throw new SDKPropertyNotFoundException(message, cause);
+		}
+		throw new SDKValueNotFoundException(message, cause);
+	}
+
+	private String getNotFoundMessage() {
+		return "SDK value not found for: " + reference;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[" + (value != null ? value : "not found: " + reference) + "]";
+	}
+}
@@ -0,0 +1,318 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package saker.sdk.support.impl;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import saker.sdk.support.api.SDKVersion;
+
+public final class SimpleSDKVersion implements SDKVersion, Externalizable {
+	private static final long serialVersionUID = 1L;
+
+	private static final int PARSED_CACHE_SIZE = 1024;
+	private static final Map<String, SimpleSDKVersion> PARSED_VERSIONS = new ConcurrentHashMap<>();
+
+	private String version;
+	private transient int[] components;
+	private transient String qualifier;
+	/**
+	 * The pre-release part of the qualifier. It is the qualifier up to the first <code>+</code> character.
+	 */
+	private transient String preRelease;
+	private transient QualifierSegment[] preReleaseSegments;
+	/**
+	 * The build metadata part of the qualifier. It is the qualifier starting from the first <code>+</code> character.
+	 */
+	private transient String buildMetadata;
+	private transient QualifierSegment[] buildMetadataSegments;
+
+	/**
+	 * For {@link Externalizable}.
+	 */
+	public SimpleSDKVersion() {
+	}
+
+	private SimpleSDKVersion(String version) throws IllegalArgumentException {
+		this.version = version;
+		parse();
+	}
+
+	public static SimpleSDKVersion valueOf(String version) throws IllegalArgumentException {
+		SimpleSDKVersion result = PARSED_VERSIONS.get(version);
+		if (result == null) {
+			result = new SimpleSDKVersion(version);
+			if (PARSED_VERSIONS.size() >= PARSED_CACHE_SIZE) {
+				//the versions are usually from a small set, only clear if it grows unexpectedly
+				PARSED_VERSIONS.clear();
+			}
+			PARSED_VERSIONS.put(version, result);
+		}
+		return result;
+	}
+
+	@Override
+	public int getComponentCount() {
+		return components.length;
+	}
+
+	@Override
+	public int getComponent(int index) throws IndexOutOfBoundsException {
+		if (index < 0) {
+			throw new IndexOutOfBoundsException(Integer.toString(index));
+		}
+		return index < components.length ? components[index] : 0;
+	}
+
+	@Override
+	public String getQualifier() {
+		return qualifier;
+	}
+
+	@Override
+	public int compareTo(SDKVersion o) {
+		SimpleSDKVersion other = o instanceof SimpleSDKVersion ? (SimpleSDKVersion) o : valueOf(o.toString());
+		int count = Math.max(getComponentCount(), other.getComponentCount());
+		for (int i = 0; i < count; i++) {
+			int cmp = Integer.compare(getComponent(i), other.getComponent(i));
+			if (cmp != 0) {
+				return cmp;
+			}
+		}
+		//pre-releases come before the release
+		int cmp = compareQualifierParts(preRelease, preReleaseSegments, other.preRelease, other.preReleaseSegments,
+				1);
+		if (cmp != 0) {
+			return cmp;
+		}
+		//build metadata doesn't affect the precedence, but versions without it come first to keep the ordering total
+		return compareQualifierParts(buildMetadata, buildMetadataSegments, other.buildMetadata,
+				other.buildMetadataSegments, -1);
+	}
+
+	private static int compareQualifierParts(String part, QualifierSegment[] segments, String opart,
+			QualifierSegment[] osegments, int missingorder) {
+		if (part == null) {
+			return opart == null ? 0 : missingorder;
+		}
+		if (opart == null) {
+			return -missingorder;
+		}
+		int count = Math.min(segments.length, osegments.length);
+		for (int i = 0; i < count; i++) {
+			int cmp = segments[i].compareTo(osegments[i]);
+			if (cmp != 0) {
+				return cmp;
+			}
+		}
+		if (segments.length != osegments.length) {
+			//more segments come later if all the preceding ones are equal
+			return Integer.compare(segments.length, osegments.length);
+		}
+		//same segments with different separators
+		return part.compareTo(opart);
+	}
+
+	@Override
+	public void writeExternal(ObjectOutput out) throws IOException {
+		out.writeUTF(version);
+	}
+
+	@Override
+	public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+		version = in.readUTF();
+		try {
+			parse();
+		} catch (IllegalArgumentException e) {
+			throw (InvalidObjectException) new InvalidObjectException(e.getMessage()).initCause(e);
+		}
+	}
+
+	private void parse() throws IllegalArgumentException {
+		String version = this.version;
+		int len = version.length();
+		int[] comps = new int[4];
+		int count = 0;
+		int i = 0;
+		while (i < len && isDigit(version.charAt(i))) {
+			int val = 0;
+			do {
+				int digit = version.charAt(i) - '0';
+				if (val > (Integer.MAX_VALUE - digit) / 10) {
+					throw new IllegalArgumentException("Version component too large: " + version);
+				}
+				val = val * 10 + digit;
+			} while (++i < len && isDigit(version.charAt(i)));
+			if (count == comps.length) {
+				comps = Arrays.copyOf(comps, count * 2);
+			}
+			comps[count++] = val;
+			if (i + 1 < len && isSeparator(version.charAt(i)) && isDigit(version.charAt(i + 1))) {
+				++i;
+			} else {
+				break;
+			}
+		}
+		if (count == 0) {
+			throw new IllegalArgumentException("Invalid version: " + version);
+		}
+		while (count > 0 && comps[count - 1] == 0) {
+			--count;
+		}
+		this.components = Arrays.copyOf(comps, count);
+		if (i < len) {
+			String qualifier = version.substring(i);
+			int plusidx = qualifier.indexOf('+');
+			this.qualifier = qualifier;
+			if (plusidx < 0) {
+				this.preRelease = qualifier;
+			} else {
+				if (plusidx > 0) {
+					this.preRelease = qualifier.substring(0, plusidx);
+				}
+				this.buildMetadata = qualifier.substring(plusidx);
+				this.buildMetadataSegments = parseQualifierSegments(buildMetadata);
+			}
+			if (preRelease != null) {
+				this.preReleaseSegments = parseQualifierSegments(preRelease);
+			}
+		}
+	}
+
+	/**
+	 * Splits the argument qualifier part to segments.
+	 * <p>
+	 * The segments are separated by the <code>.</code>, <code>-</code>, <code>_</code>, and <code>+</code> characters,
+	 * and at the boundaries of digit and non-digit characters. E.g. <code>-rc10.final</code> is split to
+	 * <code>rc</code>, <code>10</code>, and <code>final</code>.
+	 */
+	private static QualifierSegment[] parseQualifierSegments(String part) {
+		List<QualifierSegment> result = new ArrayList<>();
+		int len = part.length();
+		int i = 0;
+		while (i < len) {
+			char c = part.charAt(i);
+			if (isQualifierSeparator(c)) {
+				++i;
+				continue;
+			}
+			int start = i;
+			boolean numeric = isDigit(c);
+			while (++i < len) {
+				c = part.charAt(i);
+				if (isQualifierSeparator(c) || isDigit(c) != numeric) {
+					break;
+				}
+			}
+			result.add(new QualifierSegment(part.substring(start, i), numeric));
+		}
+		return result.toArray(new QualifierSegment[result.size()]);
+	}
+
+	private static boolean isQualifierSeparator(char c) {
+		return c == '.' || c == '-' || c == '_' || c == '+';
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isSeparator(char c) {
+		return c == '.' || c == '_';
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Arrays.hashCode(components);
+		result = prime * result + ((qualifier == null) ? 0 : qualifier.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		SimpleSDKVersion other = (SimpleSDKVersion) obj;
+		if (!Arrays.equals(components, other.components))
+			return false;
+		if (qualifier == null) {
+			if (other.qualifier != null)
+				return false;
+		} else if (!qualifier.equals(other.qualifier))
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return version;
+	}
+
+	private static final class QualifierSegment implements Comparable<QualifierSegment> {
+		/**
+		 * The text of the segment. Leading zeros are removed from numeric segments.
+		 */
+		private final String text;
+		private final boolean numeric;
+
+		public QualifierSegment(String text, boolean numeric) {
+			if (numeric) {
+				int i = 0;
+				while (i < text.length() - 1 && text.charAt(i) == '0') {
+					++i;
+				}
+				text = text.substring(i);
+			}
+			this.text = text;
+			this.numeric = numeric;
+		}
+
+		@Override
+		public int compareTo(QualifierSegment o) {
+			if (numeric) {
+				if (!o.numeric) {
+					//numeric segments come before alphanumeric ones
+					return -1;
+				}
+				//compare the numbers without parsing them, so they can be arbitrarily large
+				int cmp = Integer.compare(text.length(), o.text.length());
+				if (cmp != 0) {
+					return cmp;
+				}
+				return text.compareTo(o.text);
+			}
+			if (o.numeric) {
+				return 1;
+			}
+			return text.compareTo(o.text);
+		}
+	}
+
+}
@@ -15,12 +15,19 @@
  */
 package saker.sdk.support.impl;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.Externalizable;
 import java.io.IOException;
+import java.io.InvalidObjectException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
 
 import saker.build.file.path.SakerPath;
 import saker.build.thirdparty.saker.util.ImmutableUtils;
@@ -33,10 +40,26 @@ import saker.std.api.environment.qualifier.EnvironmentQualifier;
 public class SimpleUserSDKDescription implements UserSDKDescription, Externalizable {
 	private static final long serialVersionUID = 1L;
 
+	/**
+	 * Written in place of the path map size of the legacy format to signal the versioned format.
+	 * <p>
+	 * The legacy format starts with the size of the path map that is never less than -1.
+	 */
+	private static final int VERSIONED_FORMAT_MARKER = Integer.MIN_VALUE;
+	private static final int FORMAT_VERSION_SERIALIZED_FORM = 1;
+
 	private EnvironmentQualifier qualifier;
 	private Map<String, SakerPath> paths;
 	private Map<String, String> properties;
 
+	/**
+	 * The serialized form of the paths and properties.
+	 * <p>
+	 * The description is immutable, so the paths and properties are only encoded once, and the same bytes are written
+	 * every time the description is serialized. (E.g. when tasks are dispatched to cluster daemons.)
+	 */
+	private transient volatile byte[] serializedData;
+
 	/**
 	 * For {@link Externalizable}.
 	 */
@@ -75,15 +98,115 @@ public class SimpleUserSDKDescription implements UserSDKDescription, Externaliza
 	@Override
 	public void writeExternal(ObjectOutput out) throws IOException {
 		out.writeObject(qualifier);
-		SerialUtils.writeExternalMap(out, paths);
-		SerialUtils.writeExternalMap(out, properties);
+		out.writeInt(VERSIONED_FORMAT_MARKER);
+		out.writeByte(FORMAT_VERSION_SERIALIZED_FORM);
+		byte[] data = getSerializedData();
+		out.writeInt(data.length);
+		out.write(data);
 	}
 
 	@Override
 	public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
 		qualifier = (EnvironmentQualifier) in.readObject();
-		paths = SerialUtils.readExternalImmutableNavigableMap(in);
-		properties = SerialUtils.readExternalImmutableNavigableMap(in);
+		int marker = in.readInt();
+		if (marker != VERSIONED_FORMAT_MARKER) {
+			readLegacyExternal(in, marker);
+			return;
+		}
+		int version = in.readUnsignedByte();
+		if (version != FORMAT_VERSION_SERIALIZED_FORM) {
+			throw new InvalidObjectException("Unknown serialized format version: " + version);
+		}
+		byte[] data = new byte[in.readInt()];
+		in.readFully(data);
+		readSerializedData(data);
+		serializedData = data;
+	}
+
+	/**
+	 * Reads the format written by saker.sdk.support 0.8.3 and earlier.
+	 * <p>
+	 * The format consists of two maps written by {@link SerialUtils#writeExternalMap(ObjectOutput, Map)}, and the size
+	 * of the first one is already read.
+	 */
+	private void readLegacyExternal(ObjectInput in, int pathcount) throws IOException, ClassNotFoundException {
+		if (pathcount <= 0) {
+			paths = Collections.emptyMap();
+		} else {
+			TreeMap<String, SakerPath> readpaths = new TreeMap<>();
+			for (int i = 0; i < pathcount; i++) {
+				String key = (String) in.readObject();
+				readpaths.put(key, (SakerPath) in.readObject());
+			}
+			paths = ImmutableUtils.unmodifiableNavigableMap(readpaths);
+		}
+		Map<String, String> readproperties = SerialUtils.readExternalImmutableNavigableMap(in);
+		properties = ObjectUtils.isNullOrEmpty(readproperties) ? Collections.emptyMap() : readproperties;
+	}
+
+	private byte[] getSerializedData() throws IOException {
+		byte[] result = serializedData;
+		if (result == null) {
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			try (DataOutputStream dataout = new DataOutputStream(baos)) {
+				dataout.writeInt(paths.size());
+				for (Entry<String, SakerPath> entry : paths.entrySet()) {
+					SDKReferenceSerialFormat.writeLongUTF(dataout, entry.getKey());
+					SakerPath path = entry.getValue();
+					writeNullableString(dataout, path == null ? null : path.toString());
+				}
+				dataout.writeInt(properties.size());
+				for (Entry<String, String> entry : properties.entrySet()) {
+					SDKReferenceSerialFormat.writeLongUTF(dataout, entry.getKey());
+					writeNullableString(dataout, entry.getValue());
+				}
+			}
+			result = baos.toByteArray();
+			serializedData = result;
+		}
+		return result;
+	}
+
+	private void readSerializedData(byte[] data) throws IOException {
+		try (DataInputStream datain = new DataInputStream(new ByteArrayInputStream(data))) {
+			int pathcount = datain.readInt();
+			if (pathcount == 0) {
+				paths = Collections.emptyMap();
+			} else {
+				TreeMap<String, SakerPath> readpaths = new TreeMap<>();
+				for (int i = 0; i < pathcount; i++) {
+					String key = SDKReferenceSerialFormat.readLongUTF(datain);
+					String path = readNullableString(datain);
+					readpaths.put(key, path == null ? null : SakerPath.valueOf(path));
+				}
+				paths = Collections.unmodifiableNavigableMap(readpaths);
+			}
+			int propertycount = datain.readInt();
+			if (propertycount == 0) {
+				properties = Collections.emptyMap();
+			} else {
+				TreeMap<String, String> readproperties = new TreeMap<>();
+				for (int i = 0; i < propertycount; i++) {
+					String key = SDKReferenceSerialFormat.readLongUTF(datain);
+					readproperties.put(key, readNullableString(datain));
+				}
+				properties = Collections.unmodifiableNavigableMap(readproperties);
+			}
+		}
+	}
+
+	private static void writeNullableString(DataOutputStream out, String s) throws IOException {
+		out.writeBoolean(s != null);
+		if (s != null) {
+			SDKReferenceSerialFormat.writeLongUTF(out, s);
+		}
+	}
+
+	private static String readNullableString(DataInputStream in) throws IOException {
+		if (!in.readBoolean()) {
+			return null;
+		}
+		return SDKReferenceSerialFormat.readLongUTF(in);
 	}
 
 	@Override
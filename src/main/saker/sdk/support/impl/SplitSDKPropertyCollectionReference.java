@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package saker.sdk.support.impl;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import saker.build.thirdparty.saker.util.io.SerialUtils;
+import saker.sdk.support.api.SDKPropertyCollectionReference;
+import saker.sdk.support.api.SDKPropertyReference;
+import saker.sdk.support.api.SDKReference;
+
+/**
+ * {@link SDKPropertyCollectionReference} that splits a delimited property value.
+ * <p>
+ * The parts are trimmed, empty parts are omitted, and duplicates are removed while keeping the order of the first
+ * occurrences.
+ * <p>
+ * The result of the last split is cached in the instance, and it is reused if the property value is the same
+ * {@link String} instance. The SDKs usually return the same string object for a property, so the value is only split
+ * once as long as the reference and the SDK is the same.
+ */
+public final class SplitSDKPropertyCollectionReference implements SDKPropertyCollectionReference, Externalizable {
+	private static final long serialVersionUID = 1L;
+
+	private SDKPropertyReference propertyReference;
+	private String separator;
+
+	private transient volatile SplitResult lastResult;
+
+	/**
+	 * For {@link Externalizable}.
+	 */
+	public SplitSDKPropertyCollectionReference() {
+	}
+
+	public SplitSDKPropertyCollectionReference(SDKPropertyReference propertyReference, String separator) {
+		this.propertyReference = propertyReference;
+		this.separator = separator;
+	}
+
+	@Override
+	public Collection<String> getValue(Map<String, ? extends SDKReference> sdks)
+			throws NullPointerException, Exception {
+		String value = propertyReference.getValue(sdks);
+		if (value == null) {
+			return null;
+		}
+		SplitResult last = this.lastResult;
+		if (last != null && last.input == value) {
+			return last.result;
+		}
+		Collection<String> result = split(value);
+		this.lastResult = new SplitResult(value, result);
+		return result;
+	}
+
+	private Collection<String> split(String value) {
+		Set<String> parts = new LinkedHashSet<>();
+		int start = 0;
+		int seplen = separator.length();
+		while (true) {
+			int idx = value.indexOf(separator, start);
+			String part = (idx < 0 ? value.substring(start) : value.substring(start, idx)).trim();
+			if (!part.isEmpty()) {
+				parts.add(part);
+			}
+			if (idx < 0) {
+				break;
+			}
+			start = idx + seplen;
+		}
+		return Collections.unmodifiableList(new ArrayList<>(parts));
+	}
+
+	@Override
+	public void writeExternal(ObjectOutput out) throws IOException {
+		out.writeObject(propertyReference);
+		out.writeUTF(separator);
+	}
+
+	@Override
+	public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+		propertyReference = SerialUtils.readExternalObject(in);
+		separator = in.readUTF();
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((propertyReference == null) ? 0 : propertyReference.hashCode());
+		result = prime * result + ((separator == null) ? 0 : separator.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		SplitSDKPropertyCollectionReference other = (SplitSDKPropertyCollectionReference) obj;
+		if (propertyReference == null) {
+			if (other.propertyReference != null)
+				return false;
+		} else if (!propertyReference.equals(other.propertyReference))
+			return false;
+		if (separator == null) {
+			if (other.separator != null)
+				return false;
+		} else if (!separator.equals(other.separator))
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[" + propertyReference + " split by \"" + separator + "\"]";
+	}
+
+	private static final class SplitResult {
+		protected final String input;
+		protected final Collection<String> result;
+
+		public SplitResult(String input, Collection<String> result) {
+			this.input = input;
+			this.result = result;
+		}
+	}
+}
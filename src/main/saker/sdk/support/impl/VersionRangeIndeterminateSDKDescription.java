@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package saker.sdk.support.impl;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import saker.sdk.support.api.EnvironmentSDKDescription;
+import saker.sdk.support.api.IndeterminateSDKDescription;
+import saker.sdk.support.api.SDKDescription;
+import saker.sdk.support.api.SDKReference;
+import saker.sdk.support.api.SDKVersion;
+import saker.sdk.support.api.exc.SDKNotFoundException;
+
+public final class VersionRangeIndeterminateSDKDescription implements IndeterminateSDKDescription, Externalizable {
+	private static final long serialVersionUID = 1L;
+
+	private List<EnvironmentSDKDescription> candidates;
+	private String versionIdentifier;
+	private SDKVersion minVersion;
+	private SDKVersion maxVersion;
+
+	/**
+	 * For {@link Externalizable}.
+	 */
+	public VersionRangeIndeterminateSDKDescription() {
+	}
+
+	public VersionRangeIndeterminateSDKDescription(List<EnvironmentSDKDescription> candidates,
+			String versionIdentifier, SDKVersion minVersion, SDKVersion maxVersion) {
+		this.candidates = candidates;
+		this.versionIdentifier = versionIdentifier;
+		this.minVersion = minVersion;
+		this.maxVersion = maxVersion;
+	}
+
+	@Override
+	public SDKDescription getBaseSDKDescription() {
+		return new VersionSelectingEnvironmentSDKDescription(candidates, versionIdentifier, minVersion, maxVersion,
+				null);
+	}
+
+	@Override
+	public SDKDescription pinSDKDescription(SDKReference sdkreference) {
+		String version;
+		try {
+			version = sdkreference.getProperty(versionIdentifier);
+		} catch (Exception e) {
+			throw new SDKNotFoundException("Failed to retrieve SDK version of: " + sdkreference, e);
+		}
+		if (version == null) {
+			throw new SDKNotFoundException("SDK version not found for: " + sdkreference);
+		}
+		//select the same version on other environments
+		return new VersionSelectingEnvironmentSDKDescription(candidates, versionIdentifier, minVersion, maxVersion,
+				SDKVersion.valueOf(version));
+	}
+
+	@Override
+	public void writeExternal(ObjectOutput out) throws IOException {
+		out.writeInt(candidates.size());
+		for (EnvironmentSDKDescription candidate : candidates) {
+			out.writeObject(candidate);
+		}
+		out.writeUTF(versionIdentifier);
+		out.writeObject(minVersion);
+		out.writeObject(maxVersion);
+	}
+
+	@Override
+	public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+		int size = in.readInt();
+		List<EnvironmentSDKDescription> candidates = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			candidates.add((EnvironmentSDKDescription) in.readObject());
+		}
+		this.candidates = Collections.unmodifiableList(candidates);
+		versionIdentifier = in.readUTF();
+		minVersion = (SDKVersion) in.readObject();
+		maxVersion = (SDKVersion) in.readObject();
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((candidates == null) ? 0 : candidates.hashCode());
+		result = prime * result + ((maxVersion == null) ? 0 : maxVersion.hashCode());
+		result = prime * result + ((minVersion == null) ? 0 : minVersion.hashCode());
+		result = prime * result + ((versionIdentifier == null) ? 0 : versionIdentifier.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		VersionRangeIndeterminateSDKDescription other = (VersionRangeIndeterminateSDKDescription) obj;
+		if (candidates == null) {
+			if (other.candidates != null)
+				return false;
+		} else if (!candidates.equals(other.candidates))
+			return false;
+		if (maxVersion == null) {
+			if (other.maxVersion != null)
+				return false;
+		} else if (!maxVersion.equals(other.maxVersion))
+			return false;
+		if (minVersion == null) {
+			if (other.minVersion != null)
+				return false;
+		} else if (!minVersion.equals(other.minVersion))
+			return false;
+		if (versionIdentifier == null) {
+			if (other.versionIdentifier != null)
+				return false;
+		} else if (!versionIdentifier.equals(other.versionIdentifier))
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[" + versionIdentifier + " [" + minVersion + ", " + maxVersion + "): "
+				+ candidates + "]";
+	}
+
+}
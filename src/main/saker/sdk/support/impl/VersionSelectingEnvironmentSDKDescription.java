@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package saker.sdk.support.impl;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import saker.build.runtime.environment.SakerEnvironment;
+import saker.sdk.support.api.EnvironmentSDKDescription;
+import saker.sdk.support.api.SDKReference;
+import saker.sdk.support.api.SDKSupportUtils;
+import saker.sdk.support.api.SDKVersion;
+import saker.sdk.support.api.exc.SDKNotFoundException;
+import saker.sdk.support.api.exc.SDKPropertyNotFoundException;
+
+/**
+ * Environment SDK description that selects the SDK with the greatest version among the candidate descriptions.
+ * <p>
+ * The candidates are probed sequentially on the calling thread. Each candidate is resolved using the environment
+ * property returned by
+ * {@link SDKSupportUtils#getEnvironmentSDKDescriptionReferenceEnvironmentProperty(EnvironmentSDKDescription)}, so the
+ * probe results are cached by the build environment. The probes may run arbitrary SDK discovery code that blocks, so
+ * they aren't run on shared thread pools. Probing the candidates one by one makes only the first resolution slower,
+ * as the subsequent ones use the cached probe results. If an exact version is set, the probing stops at the first
+ * candidate with that version.
+ * <p>
+ * If an exact version is set, only the candidate with that version is selected. This is used when the SDK is pinned
+ * by {@link VersionRangeIndeterminateSDKDescription}.
+ */
+public final class VersionSelectingEnvironmentSDKDescription implements EnvironmentSDKDescription, Externalizable {
+	private static final long serialVersionUID = 1L;
+
+	private List<EnvironmentSDKDescription> candidates;
+	private String versionIdentifier;
+	private SDKVersion minVersion;
+	private SDKVersion maxVersion;
+	private SDKVersion exactVersion;
+
+	/**
+	 * For {@link Externalizable}.
+	 */
+	public VersionSelectingEnvironmentSDKDescription() {
+	}
+
+	public VersionSelectingEnvironmentSDKDescription(List<EnvironmentSDKDescription> candidates,
+			String versionIdentifier, SDKVersion minVersion, SDKVersion maxVersion, SDKVersion exactVersion) {
+		this.candidates = candidates;
+		this.versionIdentifier = versionIdentifier;
+		this.minVersion = minVersion;
+		this.maxVersion = maxVersion;
+		this.exactVersion = exactVersion;
+	}
+
+	@Override
+	public SDKReference getSDK(SakerEnvironment environment) throws Exception {
+		SDKReference result = null;
+		SDKVersion resultversion = null;
+		List<Exception> failures = new ArrayList<>();
+		for (EnvironmentSDKDescription candidate : candidates) {
+			Probe probe = probe(environment, candidate);
+			if (probe.failure != null) {
+				failures.add(probe.failure);
+				continue;
+			}
+			if (!isMatching(probe.version)) {
+				continue;
+			}
+			if (exactVersion != null) {
+				//no greater version can match, the remaining candidates don't need to be probed
+				return probe.sdkReference;
+			}
+			if (resultversion == null || probe.version.compareTo(resultversion) > 0) {
+				result = probe.sdkReference;
+				resultversion = probe.version;
+			}
+		}
+		if (result == null) {
+			SDKNotFoundException exc = new SDKNotFoundException("No SDK found with version "
+					+ (exactVersion != null ? exactVersion : "in range [" + minVersion + ", " + maxVersion + ")")
+					+ " among candidates: " + candidates);
+			for (Exception e : failures) {
+				exc.addSuppressed(e);
+			}
+			throw exc;
+		}
+		return result;
+	}
+
+	private boolean isMatching(SDKVersion version) {
+		if (exactVersion != null) {
+			return exactVersion.equals(version);
+		}
+		return version.isInRange(minVersion, maxVersion);
+	}
+
+	private Probe probe(SakerEnvironment environment, EnvironmentSDKDescription candidate) {
+		try {
+			SDKReference sdkref = environment.getEnvironmentPropertyCurrentValue(
+					SDKSupportUtils.getEnvironmentSDKDescriptionReferenceEnvironmentProperty(candidate));
+			String version = sdkref.getProperty(versionIdentifier);
+			if (version == null) {
+				return new Probe(SDKPropertyNotFoundException.createStackless(
+						"SDK version property " + versionIdentifier + " not found for: " + candidate, null));
+			}
+			return new Probe(sdkref, SDKVersion.valueOf(version));
+		} catch (Exception e) {
+			return new Probe(e);
+		}
+	}
+
+	@Override
+	public void writeExternal(ObjectOutput out) throws IOException {
+		out.writeInt(candidates.size());
+		for (EnvironmentSDKDescription candidate : candidates) {
+			out.writeObject(candidate);
+		}
+		out.writeUTF(versionIdentifier);
+		out.writeObject(minVersion);
+		out.writeObject(maxVersion);
+		out.writeObject(exactVersion);
+	}
+
+	@Override
+	public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+		int size = in.readInt();
+		List<EnvironmentSDKDescription> candidates = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			candidates.add((EnvironmentSDKDescription) in.readObject());
+		}
+		this.candidates = Collections.unmodifiableList(candidates);
+		versionIdentifier = in.readUTF();
+		minVersion = (SDKVersion) in.readObject();
+		maxVersion = (SDKVersion) in.readObject();
+		exactVersion = (SDKVersion) in.readObject();
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((candidates == null) ? 0 : candidates.hashCode());
+		result = prime * result + ((exactVersion == null) ? 0 : exactVersion.hashCode());
+		result = prime * result + ((maxVersion == null) ? 0 : maxVersion.hashCode());
+		result = prime * result + ((minVersion == null) ? 0 : minVersion.hashCode());
+		result = prime * result + ((versionIdentifier == null) ? 0 : versionIdentifier.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		VersionSelectingEnvironmentSDKDescription other = (VersionSelectingEnvironmentSDKDescription) obj;
+		if (candidates == null) {
+			if (other.candidates != null)
+				return false;
+		} else if (!candidates.equals(other.candidates))
+			return false;
+		if (exactVersion == null) {
+			if (other.exactVersion != null)
+				return false;
+		} else if (!exactVersion.equals(other.exactVersion))
+			return false;
+		if (maxVersion == null) {
+			if (other.maxVersion != null)
+				return false;
+		} else if (!maxVersion.equals(other.maxVersion))
+			return false;
+		if (minVersion == null) {
+			if (other.minVersion != null)
+				return false;
+		} else if (!minVersion.equals(other.minVersion))
+			return false;
+		if (versionIdentifier == null) {
+			if (other.versionIdentifier != null)
+				return false;
+		} else if (!versionIdentifier.equals(other.versionIdentifier))
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[" + versionIdentifier + " "
+				+ (exactVersion != null ? exactVersion : "[" + minVersion + ", " + maxVersion + ")") + ": "
+				+ candidates + "]";
+	}
+
+	private static final class Probe {
+		protected final SDKReference sdkReference;
+		protected final SDKVersion version;
+		protected final Exception failure;
+
+		public Probe(SDKReference sdkReference, SDKVersion version) {
+			this.sdkReference = sdkReference;
+			this.version = version;
+			this.failure = null;
+		}
+
+		public Probe(Exception failure) {
+			this.sdkReference = null;
+			this.version = null;
+			this.failure = failure;
+		}
+	}
+}
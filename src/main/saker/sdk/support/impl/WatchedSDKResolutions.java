@@ -0,0 +1,382 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package saker.sdk.support.impl;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import saker.build.cache.CacheKey;
+import saker.build.file.path.SakerPath;
+import saker.build.runtime.environment.SakerEnvironment;
+import saker.build.thirdparty.saker.util.ObjectUtils;
+import saker.sdk.support.api.EnvironmentSDKDescription;
+import saker.sdk.support.api.SDKReference;
+import saker.sdk.support.api.exc.SDKNotFoundException;
+
+/**
+ * Cache of the SDK references that are resolved from environment SDK descriptions and declare
+ * {@linkplain SDKReference#getWatchedDirectories() watched directories}.
+ * <p>
+ * An instance is kept for each build environment as {@linkplain SakerEnvironment#getCachedData(CacheKey) cached
+ * data}, so the SDKs are resolved and watched on the machine that uses them. The build environment closes the
+ * {@link WatchService} and drops the cached resolutions if the instance is not used for a while.
+ * <p>
+ * The watched directories are registered in a {@link WatchService}. The pending watch events are processed when a
+ * resolution is requested, and the cached SDK references for the modified directories are discarded. Only the
+ * affected SDKs are resolved again. The watch keys that are no longer used by any cached SDK reference are cancelled.
+ * At most {@value #MAX_RESOLUTIONS} resolutions are cached, the least recently used ones are discarded.
+ * <p>
+ * The directories are registered before the SDK is resolved, so modifications that happen during the resolution are
+ * not missed. The watched directories of a description are only known after it has been resolved, so they are
+ * remembered from the previous resolution. If they are not known, or they change, the SDK is resolved again after
+ * registering the directories.
+ * <p>
+ * Each cached resolution has a generation number that is unique in the JVM. A new number is assigned when the SDK is
+ * resolved again, so it can be used to key environment properties that should be recomputed after the SDK changed.
+ */
+public final class WatchedSDKResolutions {
+	private static final int MAX_RESOLUTIONS = 64;
+	private static final int MAX_KNOWN_DIRECTORIES = 256;
+	private static final long CACHE_EXPIRY_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+	private static final AtomicLong GENERATION_COUNTER = new AtomicLong();
+
+	private final Object lock = new Object();
+	private final WatchService watchService;
+	private final Map<EnvironmentSDKDescription, Resolution> resolutions = new LinkedHashMap<>(16, 0.75f, true);
+	private final Map<EnvironmentSDKDescription, Set<SakerPath>> knownDirectories = new KnownDirectoriesMap();
+	private final Map<WatchKey, Set<EnvironmentSDKDescription>> keyDescriptions = new HashMap<>();
+	private volatile boolean closed;
+
+	private WatchedSDKResolutions(WatchService watchService) {
+		this.watchService = watchService;
+	}
+
+	/**
+	 * Gets the instance that is associated with the argument build environment.
+	 * 
+	 * @param environment
+	 *            The build environment.
+	 * @return The instance.
+	 * @throws SDKNotFoundException
+	 *             If the instance cannot be created.
+	 */
+	public static WatchedSDKResolutions get(SakerEnvironment environment) throws SDKNotFoundException {
+		try {
+			return environment.getCachedData(WatchedSDKResolutionsCacheKey.INSTANCE);
+		} catch (Exception e) {
+			throw new SDKNotFoundException("Failed to initialize SDK directory watching.", e);
+		}
+	}
+
+	/**
+	 * Gets the SDK reference for the argument description.
+	 * <p>
+	 * The cached reference is returned if none of its watched directories changed since it was resolved. Otherwise the
+	 * description is resolved again.
+	 * 
+	 * @param description
+	 *            The SDK description.
+	 * @param environment
+	 *            The build environment.
+	 * @return The resolved SDK reference.
+	 * @throws SDKNotFoundException
+	 *             If the SDK resolution failed.
+	 */
+	public SDKReference getSDKReference(EnvironmentSDKDescription description, SakerEnvironment environment)
+			throws SDKNotFoundException {
+		Set<SakerPath> dirs;
+		synchronized (lock) {
+			processWatchEvents();
+			Resolution resolution = resolutions.get(description);
+			if (resolution != null) {
+				return resolution.sdkReference;
+			}
+			dirs = knownDirectories.get(description);
+		}
+		if (dirs == null) {
+			//resolve first to find out the directories to watch
+			SDKReference sdkref = resolve(description, environment);
+			dirs = getWatchedDirectories(sdkref);
+			if (dirs.isEmpty()) {
+				return sdkref;
+			}
+		}
+		List<WatchKey> keys = register(description, dirs);
+		if (keys == null) {
+			//failed to watch the directories, don't cache the reference
+			return resolve(description, environment);
+		}
+		SDKReference sdkref;
+		try {
+			sdkref = resolve(description, environment);
+		} catch (SDKNotFoundException e) {
+			synchronized (lock) {
+				release(description, keys);
+			}
+			throw e;
+		}
+		Set<SakerPath> resolveddirs = getWatchedDirectories(sdkref);
+		synchronized (lock) {
+			processWatchEvents();
+			if (resolveddirs.isEmpty()) {
+				knownDirectories.remove(description);
+				release(description, keys);
+				return sdkref;
+			}
+			knownDirectories.put(description, resolveddirs);
+			if (!resolveddirs.equals(dirs) || !isRegistered(description, keys)) {
+				//the watched directories changed, or were modified during the resolution
+				//don't cache, the directories are registered the next time
+				release(description, keys);
+				return sdkref;
+			}
+			Resolution prev = resolutions.get(description);
+			if (prev != null) {
+				//resolved concurrently, keep the cached one
+				release(description, keys);
+				return prev.sdkReference;
+			}
+			resolutions.put(description, new Resolution(sdkref, keys, GENERATION_COUNTER.incrementAndGet()));
+			evictResolutions();
+		}
+		return sdkref;
+	}
+
+	/**
+	 * Gets the generation number of the cached resolution of the argument description.
+	 * <p>
+	 * If the resolution is not cached, a new generation number is returned, that is different from all previously
+	 * returned ones.
+	 * 
+	 * @param description
+	 *            The SDK description.
+	 * @return The generation number.
+	 */
+	public long getGeneration(EnvironmentSDKDescription description) {
+		synchronized (lock) {
+			processWatchEvents();
+			Resolution resolution = resolutions.get(description);
+			if (resolution != null) {
+				return resolution.generation;
+			}
+		}
+		return GENERATION_COUNTER.incrementAndGet();
+	}
+
+	private static SDKReference resolve(EnvironmentSDKDescription description, SakerEnvironment environment)
+			throws SDKNotFoundException {
+		SDKReference sdkref;
+		try {
+			sdkref = description.getSDK(environment);
+		} catch (Exception e) {
+			throw new SDKNotFoundException("Failed to resolve SDK: " + description, e);
+		}
+		if (sdkref == null) {
+			throw new SDKNotFoundException("Failed to resolve SDK: " + description);
+		}
+		return sdkref;
+	}
+
+	private static Set<SakerPath> getWatchedDirectories(SDKReference sdkref) {
+		Collection<SakerPath> dirs = sdkref.getWatchedDirectories();
+		if (ObjectUtils.isNullOrEmpty(dirs)) {
+			return Collections.emptySet();
+		}
+		return new HashSet<>(dirs);
+	}
+
+	private List<WatchKey> register(EnvironmentSDKDescription description, Set<SakerPath> dirs) {
+		synchronized (lock) {
+			if (closed) {
+				return null;
+			}
+			List<WatchKey> keys = new ArrayList<>();
+			try {
+				for (SakerPath dir : dirs) {
+					Path localdir = Paths.get(dir.toString());
+					WatchKey key = localdir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+							StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+					keys.add(key);
+					keyDescriptions.computeIfAbsent(key, x -> new HashSet<>()).add(description);
+				}
+			} catch (IOException | ClosedWatchServiceException e) {
+				release(description, keys);
+				return null;
+			}
+			return keys;
+		}
+	}
+
+	private boolean isRegistered(EnvironmentSDKDescription description, List<WatchKey> keys) {
+		if (closed) {
+			return false;
+		}
+		for (WatchKey key : keys) {
+			Set<EnvironmentSDKDescription> descriptions = keyDescriptions.get(key);
+			if (descriptions == null || !descriptions.contains(description)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void release(EnvironmentSDKDescription description, List<WatchKey> keys) {
+		Resolution cached = resolutions.get(description);
+		for (WatchKey key : keys) {
+			if (cached != null && cached.keys.contains(key)) {
+				//still used by the cached resolution of the same SDK
+				continue;
+			}
+			Set<EnvironmentSDKDescription> descriptions = keyDescriptions.get(key);
+			if (descriptions == null) {
+				continue;
+			}
+			descriptions.remove(description);
+			if (descriptions.isEmpty()) {
+				keyDescriptions.remove(key);
+				key.cancel();
+			}
+		}
+	}
+
+	private void evictResolutions() {
+		for (Iterator<Entry<EnvironmentSDKDescription, Resolution>> it = resolutions.entrySet().iterator(); resolutions
+				.size() > MAX_RESOLUTIONS;) {
+			Entry<EnvironmentSDKDescription, Resolution> eldest = it.next();
+			it.remove();
+			release(eldest.getKey(), eldest.getValue().keys);
+		}
+	}
+
+	private void processWatchEvents() {
+		if (closed) {
+			return;
+		}
+		for (WatchKey key; (key = watchService.poll()) != null;) {
+			//the events are not examined, any change in the directory invalidates the SDKs
+			key.pollEvents();
+			Set<EnvironmentSDKDescription> descriptions = keyDescriptions.remove(key);
+			key.cancel();
+			if (descriptions != null) {
+				for (EnvironmentSDKDescription description : descriptions) {
+					Resolution resolution = resolutions.remove(description);
+					if (resolution != null) {
+						//the other watched directories of the SDK are no longer needed for it
+						release(description, resolution.keys);
+					}
+				}
+			}
+		}
+	}
+
+	private void close() throws IOException {
+		synchronized (lock) {
+			closed = true;
+			resolutions.clear();
+			knownDirectories.clear();
+			keyDescriptions.clear();
+		}
+		watchService.close();
+	}
+
+	private static final class Resolution {
+		protected final SDKReference sdkReference;
+		protected final List<WatchKey> keys;
+		protected final long generation;
+
+		public Resolution(SDKReference sdkReference, List<WatchKey> keys, long generation) {
+			this.sdkReference = sdkReference;
+			this.keys = keys;
+			this.generation = generation;
+		}
+	}
+
+	private static final class KnownDirectoriesMap extends LinkedHashMap<EnvironmentSDKDescription, Set<SakerPath>> {
+		private static final long serialVersionUID = 1L;
+
+		public KnownDirectoriesMap() {
+			super(16, 0.75f, true);
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<EnvironmentSDKDescription, Set<SakerPath>> eldest) {
+			return size() > MAX_KNOWN_DIRECTORIES;
+		}
+	}
+
+	private static final class WatchedSDKResolutionsCacheKey implements CacheKey<WatchedSDKResolutions, WatchService> {
+		public static final WatchedSDKResolutionsCacheKey INSTANCE = new WatchedSDKResolutionsCacheKey();
+
+		@Override
+		public WatchService allocate() throws Exception {
+			return FileSystems.getDefault().newWatchService();
+		}
+
+		@Override
+		public WatchedSDKResolutions generate(WatchService resource) throws Exception {
+			return new WatchedSDKResolutions(resource);
+		}
+
+		@Override
+		public boolean validate(WatchedSDKResolutions data, WatchService resource) {
+			return !data.closed;
+		}
+
+		@Override
+		public long getExpiry() {
+			return CACHE_EXPIRY_MILLIS;
+		}
+
+		@Override
+		public void close(WatchedSDKResolutions data, WatchService resource) throws Exception {
+			if (data != null) {
+				data.close();
+			} else {
+				resource.close();
+			}
+		}
+
+		@Override
+		public int hashCode() {
+			return getClass().getName().hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj != null && getClass() == obj.getClass();
+		}
+	}
+}
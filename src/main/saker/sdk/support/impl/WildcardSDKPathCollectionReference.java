@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package saker.sdk.support.impl;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+import saker.build.file.path.SakerPath;
+import saker.build.file.path.WildcardPath;
+import saker.build.thirdparty.saker.util.io.SerialUtils;
+import saker.sdk.support.api.SDKPathCollectionReference;
+import saker.sdk.support.api.SDKPathReference;
+import saker.sdk.support.api.SDKReference;
+
+public final class WildcardSDKPathCollectionReference implements SDKPathCollectionReference, Externalizable {
+	private static final long serialVersionUID = 1L;
+
+	private SDKPathReference directoryReference;
+	private WildcardPath wildcard;
+
+	/**
+	 * For {@link Externalizable}.
+	 */
+	public WildcardSDKPathCollectionReference() {
+	}
+
+	public WildcardSDKPathCollectionReference(SDKPathReference directoryReference, WildcardPath wildcard) {
+		this.directoryReference = directoryReference;
+		this.wildcard = wildcard;
+	}
+
+	@Override
+	public Collection<SakerPath> getValue(Map<String, ? extends SDKReference> sdks)
+			throws NullPointerException, Exception {
+		SakerPath directory = directoryReference.getValue(sdks);
+		if (directory == null) {
+			return null;
+		}
+		Path localdirectory = Paths.get(directory.toString());
+		NavigableSet<SakerPath> result = new TreeSet<>();
+		for (SakerPath relative : SDKDirectoryListingCache.getFiles(localdirectory)) {
+			if (wildcard.includes(relative)) {
+				result.add(directory.resolve(relative));
+			}
+		}
+		return Collections.unmodifiableNavigableSet(result);
+	}
+
+	@Override
+	public void writeExternal(ObjectOutput out) throws IOException {
+		out.writeObject(directoryReference);
+		out.writeObject(wildcard);
+	}
+
+	@Override
+	public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+		directoryReference = SerialUtils.readExternalObject(in);
+		wildcard = SerialUtils.readExternalObject(in);
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((directoryReference == null) ? 0 : directoryReference.hashCode());
+		result = prime * result + ((wildcard == null) ? 0 : wildcard.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		WildcardSDKPathCollectionReference other = (WildcardSDKPathCollectionReference) obj;
+		if (directoryReference == null) {
+			if (other.directoryReference != null)
+				return false;
+		} else if (!directoryReference.equals(other.directoryReference))
+			return false;
+		if (wildcard == null) {
+			if (other.wildcard != null)
+				return false;
+		} else if (!wildcard.equals(other.wildcard))
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[" + directoryReference + " / " + wildcard + "]";
+	}
+
+}
@@ -37,17 +37,6 @@ public class SDKSupportFrontendUtils {
 		if (ObjectUtils.isNullOrEmpty(sdksoption)) {
 			return sdkdescriptions;
 		}
-		Map<String, SDKDescriptionTaskOption> sdktaskoptions = new TreeMap<>(SDKSupportUtils.getSDKNameComparator());
-		for (Entry<String, SDKDescriptionTaskOption> entry : sdksoption.entrySet()) {
-			SDKDescriptionTaskOption sdktaskopt = entry.getValue();
-			SDKDescriptionTaskOption cloned = sdktaskopt == null ? null : sdktaskopt.clone();
-			SDKDescriptionTaskOption prev = sdktaskoptions.putIfAbsent(entry.getKey(), cloned);
-			if (prev != null) {
-				throw new SDKNameConflictException("SDK with name " + entry.getKey() + " defined multiple times. (With "
-						+ prev + " and " + cloned + ")");
-			}
-		}
-
 		SDKDescription[] desc = { null };
 		SDKDescriptionTaskOption.Visitor visitor = new SDKDescriptionTaskOption.Visitor() {
 			@Override
@@ -55,14 +44,23 @@ public class SDKSupportFrontendUtils {
 				desc[0] = description;
 			}
 		};
-
-		for (Entry<String, SDKDescriptionTaskOption> entry : sdktaskoptions.entrySet()) {
-			SDKDescriptionTaskOption val = entry.getValue();
+		for (Entry<String, SDKDescriptionTaskOption> entry : sdksoption.entrySet()) {
+			String sdkname = entry.getKey();
+			SDKDescriptionTaskOption sdktaskopt = entry.getValue();
 			desc[0] = null;
-			if (val != null) {
-				val.accept(visitor);
+			if (sdktaskopt != null) {
+				//the description is extracted right away, so the option doesn't need to be cloned
+				sdktaskopt.accept(visitor);
+			}
+			SDKDescription description = desc[0];
+			SDKDescription prev = sdkdescriptions.putIfAbsent(sdkname, description);
+			if (prev != null) {
+				//the map keeps the first key, get it for the error message
+				String prevname = sdkdescriptions.ceilingKey(sdkname);
+				throw new SDKNameConflictException("SDK with name " + sdkname + " conflicts with the SDK named "
+						+ prevname + " as SDK names are case-insensitive. (With " + prev + " and " + description
+						+ ")");
 			}
-			sdkdescriptions.putIfAbsent(entry.getKey(), desc[0]);
 		}
 		return sdkdescriptions;
 	}
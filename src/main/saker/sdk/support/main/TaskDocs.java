@@ -65,6 +65,14 @@ public class TaskDocs {
 	public static class DocSDKPropertyReference {
 	}
 
+	@NestInformation("Reference to the version of a given SDK.\n"
+			+ "Represents a version in a SDK that is dynamically resolved based on the SDK context of where "
+			+ "the object is applied. Using this only makes sense in a context where there are SDK definitions, "
+			+ "against which this version reference can be resolved.")
+	@NestTypeInformation(qualifiedName = "saker.sdk.support.api.SDKVersionReference")
+	public static class DocSDKVersionReference {
+	}
+
 	@NestInformation("An SDK description.\n"
 			+ "SDK descriptions provide information about an SDK, and how they can be accessed by their consumers.")
 	@NestTypeInformation(qualifiedName = "saker.sdk.support.api.SDKDescription")
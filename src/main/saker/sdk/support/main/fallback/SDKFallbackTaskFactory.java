@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package saker.sdk.support.main.fallback;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import saker.build.runtime.execution.ExecutionContext;
+import saker.build.task.ParameterizableTask;
+import saker.build.task.TaskContext;
+import saker.build.task.exception.MissingRequiredParameterException;
+import saker.build.task.utils.annot.SakerInput;
+import saker.build.task.utils.dependencies.EqualityTaskOutputChangeDetector;
+import saker.build.trace.BuildTrace;
+import saker.nest.scriptinfo.reflection.annot.NestInformation;
+import saker.nest.scriptinfo.reflection.annot.NestParameterInformation;
+import saker.nest.scriptinfo.reflection.annot.NestTaskInformation;
+import saker.nest.scriptinfo.reflection.annot.NestTypeInformation;
+import saker.nest.scriptinfo.reflection.annot.NestTypeUsage;
+import saker.nest.utils.FrontendTaskFactory;
+import saker.sdk.support.api.SDKPathReference;
+import saker.sdk.support.api.SDKPropertyReference;
+import saker.sdk.support.api.SDKValueReference;
+
+@NestTaskInformation(returnType = @NestTypeUsage(Object.class))
+@NestInformation("Creates a reference that retrieves the value of the first available alternative.\n"
+		+ "The alternatives are tried in order, and the first one that has a value is used. If an alternative "
+		+ "references an SDK that is not present, or the SDK doesn't have the referenced value, then the next "
+		+ "alternative is tried.\n"
+		+ "The alternatives must be either all SDK path references, or all SDK property references and literal "
+		+ "strings. The task returns a path or property reference accordingly.\n"
+		+ "Example for supporting multiple SDK layouts:\n"
+		+ "sdk.fallback([sdk.path(MySdk, Identifier: include.dir), sdk.path(MySdk, Identifier: home, "
+		+ "Relative: include)])")
+@NestParameterInformation(value = "Alternatives",
+		aliases = { "" },
+		required = true,
+		type = @NestTypeUsage(value = List.class,
+				elementTypes = SDKFallbackTaskFactory.SDKFallbackAlternativeTaskOption.class),
+		info = @NestInformation("The alternative references in the order of preference.\n"
+				+ "The alternatives after the first available one are not evaluated."))
+public class SDKFallbackTaskFactory extends FrontendTaskFactory<Object> {
+	private static final long serialVersionUID = 1L;
+
+	public static final String TASK_NAME = "sdk.fallback";
+
+	@Override
+	public ParameterizableTask<? extends Object> createTask(ExecutionContext executioncontext) {
+		return new ParameterizableTask<Object>() {
+			@SakerInput(value = { "", "Alternatives" }, required = true)
+			public List<SDKFallbackAlternativeTaskOption> alternativesOption;
+
+			@Override
+			public Object run(TaskContext taskcontext) throws Exception {
+				if (saker.build.meta.Versions.VERSION_FULL_COMPOUND >= 8_006) {
+					BuildTrace.classifyTask(BuildTrace.CLASSIFICATION_CONFIGURATION);
+				}
+
+				if (alternativesOption == null || alternativesOption.isEmpty()) {
+					taskcontext.abortExecution(new MissingRequiredParameterException("No Alternatives specified.",
+							taskcontext.getTaskId()));
+					return null;
+				}
+				List<SDKPathReference> paths = new ArrayList<>();
+				List<SDKPropertyReference> properties = new ArrayList<>();
+				for (SDKFallbackAlternativeTaskOption altopt : alternativesOption) {
+					if (altopt == null) {
+						taskcontext.abortExecution(new NullPointerException("Null alternative specified."));
+						return null;
+					}
+					SDKValueReference<?> ref = altopt.getRef();
+					if (ref instanceof SDKPathReference) {
+						paths.add((SDKPathReference) ref);
+					} else {
+						properties.add((SDKPropertyReference) ref);
+					}
+				}
+				if (!paths.isEmpty() && !properties.isEmpty()) {
+					taskcontext.abortExecution(new IllegalArgumentException(
+							"Path and property references cannot be mixed in Alternatives."));
+					return null;
+				}
+				SDKValueReference<?> result;
+				if (paths.isEmpty()) {
+					result = SDKPropertyReference.createFallback(properties);
+				} else {
+					result = SDKPathReference.createFallback(paths);
+				}
+				taskcontext.reportSelfTaskOutputChangeDetector(new EqualityTaskOutputChangeDetector(result));
+				return result;
+			}
+		};
+	}
+
+	@NestTypeInformation(qualifiedName = "SDKFallbackAlternative")
+	@NestInformation("SDK path or property reference, or literal string as an alternative value.")
+	public static class SDKFallbackAlternativeTaskOption {
+		private SDKValueReference<?> ref;
+
+		public SDKFallbackAlternativeTaskOption(SDKValueReference<?> ref) {
+			this.ref = ref;
+		}
+
+		public SDKValueReference<?> getRef() {
+			return ref;
+		}
+
+		public static SDKFallbackAlternativeTaskOption valueOf(SDKPathReference input) {
+			return new SDKFallbackAlternativeTaskOption(input);
+		}
+
+		public static SDKFallbackAlternativeTaskOption valueOf(SDKPropertyReference input) {
+			return new SDKFallbackAlternativeTaskOption(input);
+		}
+
+		public static SDKFallbackAlternativeTaskOption valueOf(String input) {
+			return new SDKFallbackAlternativeTaskOption(SDKPropertyReference.createConstant(input));
+		}
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package saker.sdk.support.main.path;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import saker.build.exception.InvalidPathFormatException;
+import saker.build.file.path.SakerPath;
+import saker.build.runtime.execution.ExecutionContext;
+import saker.build.task.ParameterizableTask;
+import saker.build.task.TaskContext;
+import saker.build.task.exception.MissingRequiredParameterException;
+import saker.build.task.utils.annot.SakerInput;
+import saker.build.task.utils.dependencies.EqualityTaskOutputChangeDetector;
+import saker.build.trace.BuildTrace;
+import saker.nest.scriptinfo.reflection.annot.NestFieldInformation;
+import saker.nest.scriptinfo.reflection.annot.NestInformation;
+import saker.nest.scriptinfo.reflection.annot.NestParameterInformation;
+import saker.nest.scriptinfo.reflection.annot.NestTaskInformation;
+import saker.nest.scriptinfo.reflection.annot.NestTypeInformation;
+import saker.nest.scriptinfo.reflection.annot.NestTypeUsage;
+import saker.nest.utils.FrontendTaskFactory;
+import saker.sdk.support.api.SDKPathReference;
+import saker.sdk.support.main.TaskDocs.DocSDKPathReference;
+import saker.sdk.support.main.TaskDocs.DocSdkIdentifierOption;
+import saker.sdk.support.main.TaskDocs.DocSdkNameOption;
+
+@NestTaskInformation(returnType = @NestTypeUsage(value = Map.class,
+		elementTypes = { String.class, DocSDKPathReference.class }))
+@NestInformation("Creates multiple references to paths in SDKs.\n"
+		+ "The task works the same way as sdk.path(), but creates multiple path references in a single task. "
+		+ "The input is a map of arbitrary keys to SDK path specifications, and the result is a map with the same "
+		+ "keys and the created SDK path references as values.\n"
+		+ "Using this task instead of multiple sdk.path() calls reduces the number of tasks in the build.\n"
+		+ "The result is compared as a whole, so the tasks that use it are rerun if any of the created references "
+		+ "change. Group the references that are used by the same tasks into a single call.")
+@NestParameterInformation(value = "Paths",
+		aliases = { "" },
+		required = true,
+		type = @NestTypeUsage(value = Map.class,
+				elementTypes = { String.class, SDKPathsTaskFactory.SDKPathEntryTaskOption.class }),
+		info = @NestInformation("The map of SDK path specifications.\n"
+				+ "The keys are used as the keys in the result map. Each value specifies the SDK Name, the path "
+				+ "Identifier and an optional Relative path, the same way as they can be specified for sdk.path()."))
+public class SDKPathsTaskFactory extends FrontendTaskFactory<Object> {
+	private static final long serialVersionUID = 1L;
+
+	public static final String TASK_NAME = "sdk.paths";
+
+	@Override
+	public ParameterizableTask<? extends Object> createTask(ExecutionContext executioncontext) {
+		return new ParameterizableTask<Object>() {
+			@SakerInput(value = { "", "Paths" }, required = true)
+			public Map<String, SDKPathEntryTaskOption> pathsOption;
+
+			@Override
+			public Object run(TaskContext taskcontext) throws Exception {
+				if (saker.build.meta.Versions.VERSION_FULL_COMPOUND >= 8_006) {
+					BuildTrace.classifyTask(BuildTrace.CLASSIFICATION_CONFIGURATION);
+				}
+
+				Map<String, SDKPathReference> result = new LinkedHashMap<>();
+				for (Entry<String, SDKPathEntryTaskOption> entry : pathsOption.entrySet()) {
+					String key = entry.getKey();
+					SDKPathEntryTaskOption pathopt = entry.getValue();
+					if (pathopt == null || pathopt.getName() == null || pathopt.getIdentifier() == null) {
+						taskcontext.abortExecution(new MissingRequiredParameterException(
+								"Missing Name or Identifier for SDK path: " + key, taskcontext.getTaskId()));
+						return null;
+					}
+					SakerPath relative = pathopt.getRelative();
+					if (relative != null && !relative.isRelative()) {
+						taskcontext.abortExecution(new InvalidPathFormatException(
+								"Relative path argument is not relative: " + relative + " for SDK path: " + key));
+						return null;
+					}
+					result.put(key, SDKPathReference.create(pathopt.getName(), pathopt.getIdentifier(), relative));
+				}
+				//the whole map is compared, the dependent tasks don't track which entries they use
+				taskcontext.reportSelfTaskOutputChangeDetector(new EqualityTaskOutputChangeDetector(result));
+				return result;
+			}
+		};
+	}
+
+	@NestTypeInformation(qualifiedName = "SDKPathEntry")
+	@NestInformation("Specification of an SDK path reference.")
+	@NestFieldInformation(value = "Name",
+			type = @NestTypeUsage(DocSdkNameOption.class),
+			info = @NestInformation("Specifies the SDK name that the path should be resolved against."))
+	@NestFieldInformation(value = "Identifier",
+			type = @NestTypeUsage(DocSdkIdentifierOption.class),
+			info = @NestInformation("Specifies the path Identifier in the SDK."))
+	@NestFieldInformation(value = "Relative",
+			type = @NestTypeUsage(SakerPath.class),
+			info = @NestInformation("Specifies a relative path that should be resolved against the retrieved "
+					+ "SDK path."))
+	public interface SDKPathEntryTaskOption {
+		public String getName();
+
+		public String getIdentifier();
+
+		public SakerPath getRelative();
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package saker.sdk.support.main.property;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import saker.build.runtime.execution.ExecutionContext;
+import saker.build.task.ParameterizableTask;
+import saker.build.task.TaskContext;
+import saker.build.task.exception.MissingRequiredParameterException;
+import saker.build.task.utils.annot.SakerInput;
+import saker.build.task.utils.dependencies.EqualityTaskOutputChangeDetector;
+import saker.build.trace.BuildTrace;
+import saker.nest.scriptinfo.reflection.annot.NestFieldInformation;
+import saker.nest.scriptinfo.reflection.annot.NestInformation;
+import saker.nest.scriptinfo.reflection.annot.NestParameterInformation;
+import saker.nest.scriptinfo.reflection.annot.NestTaskInformation;
+import saker.nest.scriptinfo.reflection.annot.NestTypeInformation;
+import saker.nest.scriptinfo.reflection.annot.NestTypeUsage;
+import saker.nest.utils.FrontendTaskFactory;
+import saker.sdk.support.api.SDKPropertyReference;
+import saker.sdk.support.main.TaskDocs.DocSDKPropertyReference;
+import saker.sdk.support.main.TaskDocs.DocSdkIdentifierOption;
+import saker.sdk.support.main.TaskDocs.DocSdkNameOption;
+
+@NestTaskInformation(returnType = @NestTypeUsage(value = Map.class,
+		elementTypes = { String.class, DocSDKPropertyReference.class }))
+@NestInformation("Creates multiple references to properties in SDKs.\n"
+		+ "The task works the same way as sdk.property() with the Name and Identifier parameters, but creates "
+		+ "multiple property references in a single task. "
+		+ "The input is a map of arbitrary keys to SDK property specifications, and the result is a map with the same "
+		+ "keys and the created SDK property references as values.\n"
+		+ "Using this task instead of multiple sdk.property() calls reduces the number of tasks in the build.\n"
+		+ "The result is compared as a whole, so the tasks that use it are rerun if any of the created references "
+		+ "change. Group the references that are used by the same tasks into a single call.")
+@NestParameterInformation(value = "Properties",
+		aliases = { "" },
+		required = true,
+		type = @NestTypeUsage(value = Map.class,
+				elementTypes = { String.class, SDKPropertiesTaskFactory.SDKPropertyEntryTaskOption.class }),
+		info = @NestInformation("The map of SDK property specifications.\n"
+				+ "The keys are used as the keys in the result map. Each value specifies the SDK Name and the property "
+				+ "Identifier, the same way as they can be specified for sdk.property()."))
+public class SDKPropertiesTaskFactory extends FrontendTaskFactory<Object> {
+	private static final long serialVersionUID = 1L;
+
+	public static final String TASK_NAME = "sdk.properties";
+
+	@Override
+	public ParameterizableTask<? extends Object> createTask(ExecutionContext executioncontext) {
+		return new ParameterizableTask<Object>() {
+			@SakerInput(value = { "", "Properties" }, required = true)
+			public Map<String, SDKPropertyEntryTaskOption> propertiesOption;
+
+			@Override
+			public Object run(TaskContext taskcontext) throws Exception {
+				if (saker.build.meta.Versions.VERSION_FULL_COMPOUND >= 8_006) {
+					BuildTrace.classifyTask(BuildTrace.CLASSIFICATION_CONFIGURATION);
+				}
+
+				Map<String, SDKPropertyReference> result = new LinkedHashMap<>();
+				for (Entry<String, SDKPropertyEntryTaskOption> entry : propertiesOption.entrySet()) {
+					String key = entry.getKey();
+					SDKPropertyEntryTaskOption propertyopt = entry.getValue();
+					if (propertyopt == null || propertyopt.getName() == null || propertyopt.getIdentifier() == null) {
+						taskcontext.abortExecution(new MissingRequiredParameterException(
+								"Missing Name or Identifier for SDK property: " + key, taskcontext.getTaskId()));
+						return null;
+					}
+					result.put(key, SDKPropertyReference.create(propertyopt.getName(), propertyopt.getIdentifier()));
+				}
+				//the whole map is compared, the dependent tasks don't track which entries they use
+				taskcontext.reportSelfTaskOutputChangeDetector(new EqualityTaskOutputChangeDetector(result));
+				return result;
+			}
+		};
+	}
+
+	@NestTypeInformation(qualifiedName = "SDKPropertyEntry")
+	@NestInformation("Specification of an SDK property reference.")
+	@NestFieldInformation(value = "Name",
+			type = @NestTypeUsage(DocSdkNameOption.class),
+			info = @NestInformation("Specifies the SDK name that the property should be resolved against."))
+	@NestFieldInformation(value = "Identifier",
+			type = @NestTypeUsage(DocSdkIdentifierOption.class),
+			info = @NestInformation("Specifies the property Identifier in the SDK."))
+	public interface SDKPropertyEntryTaskOption {
+		public String getName();
+
+		public String getIdentifier();
+	}
+}
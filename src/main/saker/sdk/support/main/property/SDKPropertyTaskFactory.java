@@ -78,8 +78,10 @@ import saker.sdk.support.main.TaskDocs.DocSdkNameOption;
 				elementTypes = SDKPropertyTaskFactory.SDKPropertyFormatArgumentTaskOption.class),
 		info = @NestInformation("The input arguments for the Format parameter.\n"
 				+ "If this parameter is specified, Format must be as well. Each argument can be other "
-				+ "SDK property and path references. They will be evaluated and passed to the formatter "
-				+ "as the input."))
+				+ "SDK property and path references, or literal strings. They will be evaluated and passed to the "
+				+ "formatter as the input.\n"
+				+ "The literal arguments and the nested sdk.property() results are folded into the format if "
+				+ "possible, so only the SDK dependent parts are computed when the property is retrieved."))
 public class SDKPropertyTaskFactory extends FrontendTaskFactory<Object> {
 	private static final long serialVersionUID = 1L;
 
@@ -119,7 +121,8 @@ public class SDKPropertyTaskFactory extends FrontendTaskFactory<Object> {
 					}
 					SDKPropertyReference result = SDKPropertyReference.create(sdkNameOption, identifierOption);
 					if (formatOption != null) {
-						result = new FormattedSDKPropertyReference(formatOption, ImmutableUtils.singletonList(result));
+						result = FormattedSDKPropertyReference.create(formatOption,
+								ImmutableUtils.singletonList(result));
 					}
 					taskcontext.reportSelfTaskOutputChangeDetector(new EqualityTaskOutputChangeDetector(result));
 					return result;
@@ -139,7 +142,7 @@ public class SDKPropertyTaskFactory extends FrontendTaskFactory<Object> {
 					for (SDKPropertyFormatArgumentTaskOption argopt : argumentsOption) {
 						args.add(argopt.getRef());
 					}
-					SDKPropertyReference result = new FormattedSDKPropertyReference(formatOption,
+					SDKPropertyReference result = FormattedSDKPropertyReference.create(formatOption,
 							ImmutableUtils.makeImmutableList(args));
 					taskcontext.reportSelfTaskOutputChangeDetector(new EqualityTaskOutputChangeDetector(result));
 					return result;
@@ -154,7 +157,7 @@ public class SDKPropertyTaskFactory extends FrontendTaskFactory<Object> {
 	}
 
 	@NestTypeInformation(qualifiedName = "SDKPropertyFormatArgument")
-	@NestInformation("Input SDK path or property reference for the associated format string.")
+	@NestInformation("Input SDK path or property reference, or literal string for the associated format string.")
 	public static class SDKPropertyFormatArgumentTaskOption {
 		private SDKValueReference<?> ref;
 
@@ -174,5 +177,9 @@ public class SDKPropertyTaskFactory extends FrontendTaskFactory<Object> {
 			return new SDKPropertyFormatArgumentTaskOption(input);
 		}
 
+		public static SDKPropertyFormatArgumentTaskOption valueOf(String input) {
+			return new SDKPropertyFormatArgumentTaskOption(SDKPropertyReference.createConstant(input));
+		}
+
 	}
 }
@@ -18,6 +18,10 @@ package saker.sdk.support.main.resolve;
 import java.util.Map;
 import java.util.NavigableMap;
 
+import saker.build.file.ByteArraySakerFile;
+import saker.build.file.SakerDirectory;
+import saker.build.file.SakerFile;
+import saker.build.file.path.SakerPath;
 import saker.build.runtime.execution.ExecutionContext;
 import saker.build.runtime.execution.ExecutionProperty;
 import saker.build.task.EnvironmentSelectionResult;
@@ -57,6 +61,14 @@ import saker.std.api.util.SakerStandardUtils;
 		info = @NestInformation("The map of SDKs to resolve.\n"
 				+ "The keys are the name of a given SDK and they are treated in a case-insensitive manner. The values "
 				+ "are the SDK configurations that should be resolved."))
+@NestParameterInformation(value = "LockFile",
+		type = @NestTypeUsage(SakerPath.class),
+		info = @NestInformation("Path to a lock file that records the pinned SDKs.\n"
+				+ "If specified, the pinned SDKs are written to the lock file, and they are reused in later builds "
+				+ "as long as the input SDKs don't change. In that case the SDKs are not resolved in the build "
+				+ "environment, and the previously pinned configurations are returned.\n"
+				+ "Delete the lock file to pin the SDKs again.\n"
+				+ "Relative paths are resolved against the working directory of the task."))
 public class ResolveSDKTaskFactory extends FrontendTaskFactory<Object> {
 	private static final long serialVersionUID = 1L;
 
@@ -69,6 +81,9 @@ public class ResolveSDKTaskFactory extends FrontendTaskFactory<Object> {
 			@SakerInput(value = { "", "SDKs" }, required = true)
 			public Map<String, SDKDescriptionTaskOption> sdksOption;
 
+			@SakerInput(value = "LockFile")
+			public SakerPath lockFileOption;
+
 			@Override
 			public Object run(TaskContext taskcontext) throws Exception {
 				if (saker.build.meta.Versions.VERSION_FULL_COMPOUND >= 8_006) {
@@ -76,6 +91,23 @@ public class ResolveSDKTaskFactory extends FrontendTaskFactory<Object> {
 				}
 
 				NavigableMap<String, SDKDescription> sdks = SDKSupportFrontendUtils.toSDKDescriptionMap(sdksOption);
+				SakerPath lockfilepath = null;
+				if (lockFileOption != null) {
+					lockfilepath = taskcontext.getTaskWorkingDirectoryPath().resolve(lockFileOption);
+					SakerFile lockfile = taskcontext.getTaskUtilities().resolveFileAtPath(lockfilepath);
+					if (lockfile != null) {
+						NavigableMap<String, SDKDescription> lockedpins = SDKLockFile.readPinned(lockfile.getBytes(),
+								sdks);
+						if (lockedpins != null) {
+							//only report the input dependency if the lock file is used
+							//otherwise it is overwritten and reported as an output
+							taskcontext.reportInputFileDependency(null, lockfilepath, lockfile.getContentDescriptor());
+							taskcontext.reportSelfTaskOutputChangeDetector(
+									new EqualityTaskOutputChangeDetector(lockedpins));
+							return lockedpins;
+						}
+					}
+				}
 				TaskExecutionEnvironmentSelector envselector = SDKSupportUtils
 						.getSDKBasedClusterExecutionEnvironmentSelector(sdks.values());
 				NavigableMap<String, SDKDescription> pinned;
@@ -91,14 +123,25 @@ public class ResolveSDKTaskFactory extends FrontendTaskFactory<Object> {
 					}
 				} else {
 					try {
-						NavigableMap<String, SDKReference> resolved = SDKSupportUtils.resolveSDKReferences(taskcontext,
-								sdks);
+						//resolve all SDKs to report every misconfigured one at once
+						NavigableMap<String, SDKReference> resolved = SDKSupportUtils
+								.resolveAllSDKReferences(taskcontext, sdks);
 						pinned = SDKSupportUtils.pinSDKSelection(sdks, resolved);
 					} catch (Exception e) {
 						throw new SDKManagementException("SDK resolution failed.", e);
 					}
 				}
 
+				if (lockfilepath != null) {
+					SakerDirectory lockdir = taskcontext.getTaskUtilities()
+							.resolveDirectoryAtPathCreate(lockfilepath.getParent());
+					SakerFile lockfile = new ByteArraySakerFile(lockfilepath.getFileName(),
+							SDKLockFile.write(sdks, pinned));
+					lockdir.add(lockfile);
+					lockfile.synchronize();
+					taskcontext.reportOutputFileDependency(null, lockfilepath, lockfile.getContentDescriptor());
+				}
+
 				taskcontext.reportSelfTaskOutputChangeDetector(new EqualityTaskOutputChangeDetector(pinned));
 				return pinned;
 			}
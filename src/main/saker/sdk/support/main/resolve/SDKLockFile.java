@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package saker.sdk.support.main.resolve;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+import saker.build.thirdparty.saker.util.io.ByteArrayRegion;
+import saker.sdk.support.api.SDKDescription;
+import saker.sdk.support.api.SDKSupportUtils;
+
+/**
+ * Reads and writes the lock files of the {@link ResolveSDKTaskFactory sdk.resolve} task.
+ * <p>
+ * The lock file contains the input SDK descriptions and the pinned descriptions that were produced for them. The
+ * pinned descriptions are only reused if the input descriptions of the task equal to the recorded ones.
+ * <p>
+ * The SDK descriptions are implemented by arbitrary SDK support packages, and they only define serialization using
+ * {@link Externalizable}, so they are written using object streams. As the lock file may come from an untrusted
+ * source, only an allowlist of classes is deserialized. These are the {@link Externalizable} classes, enums, boxed
+ * primitives, strings, and the common collections of <code>java.util</code>. Other classes, like the ones with custom
+ * <code>readObject</code> methods that are commonly used in deserialization gadget chains, cause the lock file to be
+ * ignored.
+ */
+final class SDKLockFile {
+	private static final int MAGIC = 0x53444b4c;
+	private static final int VERSION = 1;
+
+	private SDKLockFile() {
+		throw new UnsupportedOperationException();
+	}
+
+	public static byte[] write(NavigableMap<String, SDKDescription> inputs, NavigableMap<String, SDKDescription> pinned)
+			throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (DataOutputStream dataout = new DataOutputStream(baos)) {
+			dataout.writeInt(MAGIC);
+			dataout.writeByte(VERSION);
+			try (ObjectOutputStream out = new ObjectOutputStream(dataout)) {
+				out.writeInt(inputs.size());
+				for (Entry<String, SDKDescription> entry : inputs.entrySet()) {
+					String sdkname = entry.getKey();
+					out.writeUTF(sdkname);
+					out.writeObject(entry.getValue());
+					out.writeObject(pinned.get(sdkname));
+				}
+			}
+		}
+		return baos.toByteArray();
+	}
+
+	/**
+	 * Reads the pinned SDK descriptions from the lock file contents if the recorded inputs match the argument.
+	 * 
+	 * @param contents
+	 *            The contents of the lock file.
+	 * @param inputs
+	 *            The current input SDK descriptions.
+	 * @return The pinned SDK descriptions or <code>null</code> if the lock file is outdated or unreadable.
+	 */
+	public static NavigableMap<String, SDKDescription> readPinned(ByteArrayRegion contents,
+			NavigableMap<String, SDKDescription> inputs) {
+		Set<ClassLoader> classloaders = new LinkedHashSet<>();
+		for (SDKDescription desc : inputs.values()) {
+			ClassLoader cl = desc.getClass().getClassLoader();
+			if (cl != null) {
+				classloaders.add(cl);
+			}
+		}
+		classloaders.add(SDKLockFile.class.getClassLoader());
+
+		NavigableMap<String, SDKDescription> recordedinputs = new TreeMap<>(SDKSupportUtils.getSDKNameComparator());
+		NavigableMap<String, SDKDescription> pinned = new TreeMap<>(SDKSupportUtils.getSDKNameComparator());
+		try (DataInputStream datain = new DataInputStream(
+				new ByteArrayInputStream(contents.getArray(), contents.getOffset(), contents.getLength()))) {
+			if (datain.readInt() != MAGIC || datain.readUnsignedByte() != VERSION) {
+				return null;
+			}
+			try (ObjectInputStream in = new ClassLoadersObjectInputStream(datain, classloaders)) {
+				int count = in.readInt();
+				if (count != inputs.size()) {
+					return null;
+				}
+				for (int i = 0; i < count; i++) {
+					String sdkname = in.readUTF();
+					recordedinputs.put(sdkname, (SDKDescription) in.readObject());
+					pinned.put(sdkname, (SDKDescription) in.readObject());
+				}
+			}
+		} catch (IOException | ClassNotFoundException | RuntimeException e) {
+			//the lock file is malformed, contains disallowed classes, or was written by an incompatible version
+			return null;
+		}
+		if (!recordedinputs.equals(inputs)) {
+			return null;
+		}
+		return pinned;
+	}
+
+	private static final class ClassLoadersObjectInputStream extends ObjectInputStream {
+		private static final Set<String> ALLOWED_COLLECTION_CLASS_NAMES = new HashSet<>(Arrays.asList(
+				"java.util.ArrayList", "java.util.LinkedList", "java.util.HashMap", "java.util.LinkedHashMap",
+				"java.util.TreeMap", "java.util.HashSet", "java.util.LinkedHashSet", "java.util.TreeSet",
+				"java.util.Arrays$ArrayList"));
+		private static final String[] ALLOWED_COLLECTION_CLASS_NAME_PREFIXES = { "java.util.Collections$Empty",
+				"java.util.Collections$Singleton", "java.util.Collections$Unmodifiable" };
+
+		private final Set<ClassLoader> classLoaders;
+
+		public ClassLoadersObjectInputStream(InputStream in, Set<ClassLoader> classLoaders) throws IOException {
+			super(in);
+			this.classLoaders = classLoaders;
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			String name = desc.getName();
+			Class<?> result = null;
+			for (ClassLoader cl : classLoaders) {
+				try {
+					//don't initialize the class until it is checked
+					result = Class.forName(name, false, cl);
+					break;
+				} catch (ClassNotFoundException e) {
+					continue;
+				}
+			}
+			if (result == null) {
+				result = super.resolveClass(desc);
+			}
+			if (!isAllowedClass(result)) {
+				throw new InvalidClassException(name, "Class is not allowed in SDK lock files.");
+			}
+			return result;
+		}
+
+		@Override
+		protected Class<?> resolveProxyClass(String[] interfaces) throws IOException, ClassNotFoundException {
+			throw new InvalidClassException("Proxy classes are not allowed in SDK lock files.");
+		}
+
+		private static boolean isAllowedClass(Class<?> c) {
+			while (c.isArray()) {
+				c = c.getComponentType();
+			}
+			if (c.isPrimitive() || c.isEnum() || Externalizable.class.isAssignableFrom(c)) {
+				return true;
+			}
+			if (c == String.class || c == Boolean.class || c == Character.class
+					|| (Number.class.isAssignableFrom(c) && c.getName().startsWith("java.lang."))) {
+				return true;
+			}
+			String name = c.getName();
+			if (ALLOWED_COLLECTION_CLASS_NAMES.contains(name)) {
+				return true;
+			}
+			for (String prefix : ALLOWED_COLLECTION_CLASS_NAME_PREFIXES) {
+				if (name.startsWith(prefix)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package saker.sdk.support.main.version;
+
+import saker.build.runtime.execution.ExecutionContext;
+import saker.build.task.ParameterizableTask;
+import saker.build.task.TaskContext;
+import saker.build.task.utils.annot.SakerInput;
+import saker.build.task.utils.dependencies.EqualityTaskOutputChangeDetector;
+import saker.build.trace.BuildTrace;
+import saker.nest.scriptinfo.reflection.annot.NestInformation;
+import saker.nest.scriptinfo.reflection.annot.NestParameterInformation;
+import saker.nest.scriptinfo.reflection.annot.NestTaskInformation;
+import saker.nest.scriptinfo.reflection.annot.NestTypeUsage;
+import saker.nest.utils.FrontendTaskFactory;
+import saker.sdk.support.api.SDKPropertyReference;
+import saker.sdk.support.api.SDKVersionReference;
+import saker.sdk.support.main.TaskDocs.DocSDKVersionReference;
+import saker.sdk.support.main.TaskDocs.DocSdkIdentifierOption;
+import saker.sdk.support.main.TaskDocs.DocSdkNameOption;
+
+@NestTaskInformation(returnType = @NestTypeUsage(DocSDKVersionReference.class))
+@NestInformation("Creates a reference to the version of a given SDK.\n"
+		+ "The version is retrieved as the property with the given Identifier from the SDK, and it is parsed to a "
+		+ "comparable version object when the reference is resolved.\n"
+		+ "SDK version references can be passed to tasks which support it. They are resolved against the SDKs which "
+		+ "are also passed to the associated task as input.")
+@NestParameterInformation(value = "Name",
+		aliases = { "" },
+		required = true,
+		type = @NestTypeUsage(DocSdkNameOption.class),
+		info = @NestInformation("Specifies the SDK name that the version should be resolved against.\n"
+				+ "The SDK names are compared in an ignore case manner. The actual SDK the version "
+				+ "is resolved against is based on the usage context of the returned reference."))
+@NestParameterInformation(value = "Identifier",
+		required = true,
+		type = @NestTypeUsage(DocSdkIdentifierOption.class),
+		info = @NestInformation("Specifies the Identifier of the version property in the SDK.\n"
+				+ "The property with the specified Identifier will be parsed as the version. The available "
+				+ "supported identifiers are based on the associated SDK."))
+public class SDKVersionTaskFactory extends FrontendTaskFactory<Object> {
+	private static final long serialVersionUID = 1L;
+
+	public static final String TASK_NAME = "sdk.version";
+
+	@Override
+	public ParameterizableTask<? extends Object> createTask(ExecutionContext executioncontext) {
+		return new ParameterizableTask<Object>() {
+			@SakerInput(value = { "", "Name" }, required = true)
+			public String sdkName;
+
+			@SakerInput(value = { "Identifier" }, required = true)
+			public String identifier;
+
+			@Override
+			public Object run(TaskContext taskcontext) throws Exception {
+				if (saker.build.meta.Versions.VERSION_FULL_COMPOUND >= 8_006) {
+					BuildTrace.classifyTask(BuildTrace.CLASSIFICATION_CONFIGURATION);
+				}
+
+				SDKVersionReference result = SDKVersionReference
+						.create(SDKPropertyReference.create(sdkName, identifier));
+				taskcontext.reportSelfTaskOutputChangeDetector(new EqualityTaskOutputChangeDetector(result));
+				return result;
+			}
+		};
+	}
+
+}
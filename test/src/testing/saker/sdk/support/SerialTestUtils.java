@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package testing.saker.sdk.support;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.util.Map;
+
+public class SerialTestUtils {
+	private SerialTestUtils() {
+		throw new UnsupportedOperationException();
+	}
+
+	public static byte[] serialize(Object obj) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+			oos.writeObject(obj);
+		}
+		return baos.toByteArray();
+	}
+
+	@SuppressWarnings("unchecked")
+	public static <T> T deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+			return (T) ois.readObject();
+		}
+	}
+
+	public static <T> T roundTrip(T obj) throws IOException, ClassNotFoundException {
+		return deserialize(serialize(obj));
+	}
+
+	public static int serializedSize(Object obj) throws IOException {
+		return serialize(obj).length;
+	}
+
+	public static String repeat(String s, int count) {
+		StringBuilder sb = new StringBuilder(s.length() * count);
+		for (int i = 0; i < count; i++) {
+			sb.append(s);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Serializes the argument object as if it was an instance of a different class.
+	 * <p>
+	 * Used to create the serialized forms of earlier versions of a class. The argument object writes the legacy layout
+	 * in its <code>writeExternal</code> method, and the stream writes the class descriptor of the current class in
+	 * place of its own.
+	 */
+	public static byte[] serializeAs(Object obj, Map<Class<?>, Class<?>> classreplacements) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ReplacingObjectOutputStream(baos, classreplacements)) {
+			oos.writeObject(obj);
+		}
+		return baos.toByteArray();
+	}
+
+	private static final class ReplacingObjectOutputStream extends ObjectOutputStream {
+		private final Map<Class<?>, Class<?>> classReplacements;
+
+		public ReplacingObjectOutputStream(OutputStream out, Map<Class<?>, Class<?>> classreplacements)
+				throws IOException {
+			super(out);
+			this.classReplacements = classreplacements;
+		}
+
+		@Override
+		protected void writeClassDescriptor(ObjectStreamClass desc) throws IOException {
+			Class<?> replacement = classReplacements.get(desc.forClass());
+			if (replacement != null) {
+				desc = ObjectStreamClass.lookup(replacement);
+			}
+			super.writeClassDescriptor(desc);
+		}
+	}
+}
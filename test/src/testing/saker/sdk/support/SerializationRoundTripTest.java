@@ -0,0 +1,338 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package testing.saker.sdk.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static testing.saker.sdk.support.SerialTestUtils.repeat;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import saker.build.file.path.SakerPath;
+import saker.build.file.path.WildcardPath;
+import saker.build.runtime.environment.EnvironmentProperty;
+import saker.build.runtime.environment.SakerEnvironment;
+import saker.build.thirdparty.saker.util.io.SerialUtils;
+import saker.sdk.support.api.EnvironmentSDKDescription;
+import saker.sdk.support.api.PersistentSDKNameMap;
+import saker.sdk.support.api.SDKDescription;
+import saker.sdk.support.api.SDKPathReference;
+import saker.sdk.support.api.SDKPropertyReference;
+import saker.sdk.support.api.SDKReference;
+import saker.sdk.support.api.SDKValueReference;
+import saker.sdk.support.impl.ArgumentListSDKPropertyCollectionReference;
+import saker.sdk.support.impl.ConstantSDKPropertyReference;
+import saker.sdk.support.impl.ContentFingerprintSDKPropertyReference;
+import saker.sdk.support.impl.EnvironmentSDKDescriptionReferenceEnvironmentProperty;
+import saker.sdk.support.impl.FallbackSDKPathReference;
+import saker.sdk.support.impl.FallbackSDKPropertyReference;
+import saker.sdk.support.impl.FormattedSDKPropertyReference;
+import saker.sdk.support.impl.PropertyEnvironmentSDKDescription;
+import saker.sdk.support.impl.SDKBasedClusterExecutionEnvironmentSelector;
+import saker.sdk.support.impl.SDKPathReferenceBackedCollectionReference;
+import saker.sdk.support.impl.SDKPropertyReferenceBackedCollectionReference;
+import saker.sdk.support.impl.SimplePersistentSDKNameMap;
+import saker.sdk.support.impl.SimpleResolvedSDKDescription;
+import saker.sdk.support.impl.SimpleSDKPathReference;
+import saker.sdk.support.impl.SimpleSDKPropertyReference;
+import saker.sdk.support.impl.SimpleSDKVersion;
+import saker.sdk.support.impl.SimpleUserSDKDescription;
+import saker.sdk.support.impl.SimpleUserSDKReference;
+import saker.sdk.support.impl.SplitSDKPropertyCollectionReference;
+import saker.sdk.support.impl.VersionRangeIndeterminateSDKDescription;
+import saker.sdk.support.impl.VersionSDKValueReference;
+import saker.sdk.support.impl.VersionSelectingEnvironmentSDKDescription;
+import saker.sdk.support.impl.WatchedEnvironmentSDKReferenceEnvironmentProperty;
+import saker.sdk.support.impl.WildcardSDKPathCollectionReference;
+import saker.std.api.environment.qualifier.EnvironmentQualifier;
+
+public class SerializationRoundTripTest {
+	private static void assertRoundTrip(Object obj) throws Exception {
+		Object read = SerialTestUtils.roundTrip(obj);
+		assertNotSame(obj, read);
+		assertEquals(obj, read);
+		assertEquals(obj.hashCode(), read.hashCode());
+	}
+
+	@Test
+	public void valueReferences() throws Exception {
+		SimpleSDKPathReference path = new SimpleSDKPathReference("MySdk", "home", SakerPath.valueOf("include"));
+		SimpleSDKPropertyReference property = new SimpleSDKPropertyReference("MySdk", "version");
+		assertRoundTrip(path);
+		assertRoundTrip(new SimpleSDKPathReference("MySdk", "home", null));
+		assertRoundTrip(property);
+		assertRoundTrip(new ConstantSDKPropertyReference("constant"));
+		assertRoundTrip(new SDKPathReferenceBackedCollectionReference(path));
+		assertRoundTrip(new SDKPropertyReferenceBackedCollectionReference(property));
+		assertRoundTrip(new VersionSDKValueReference(property));
+		assertRoundTrip(new SplitSDKPropertyCollectionReference(property, ";"));
+		assertRoundTrip(new FallbackSDKPathReference(
+				Arrays.<SDKPathReference>asList(path, new SimpleSDKPathReference("Other", "home", null))));
+		assertRoundTrip(new ArgumentListSDKPropertyCollectionReference("-I", "",
+				Collections.singletonList(new SDKPathReferenceBackedCollectionReference(path))));
+	}
+
+	@Test
+	public void otherValueReferences() throws Exception {
+		SimpleSDKPathReference path = new SimpleSDKPathReference("MySdk", "home", null);
+		assertRoundTrip(new FallbackSDKPropertyReference(Arrays.<SDKPropertyReference>asList(
+				new SimpleSDKPropertyReference("MySdk", "version"), new ConstantSDKPropertyReference("1.0"))));
+		assertRoundTrip(new ContentFingerprintSDKPropertyReference(path));
+		assertRoundTrip(new WildcardSDKPathCollectionReference(path, WildcardPath.valueOf("lib/**/*.jar")));
+	}
+
+	@Test
+	public void sdkDescriptions() throws Exception {
+		Map<String, SakerPath> paths = Collections.singletonMap("home", SakerPath.valueOf("/sdk/home"));
+		Map<String, String> properties = Collections.singletonMap("version", "1.2.3");
+		SimpleUserSDKReference userref = new SimpleUserSDKReference(paths, properties);
+		assertRoundTrip(userref);
+		assertRoundTrip(new SimpleResolvedSDKDescription(userref));
+
+		List<EnvironmentSDKDescription> candidates = Arrays.asList(
+				new PropertyEnvironmentSDKDescription(new TestSDKEnvironmentProperty("first")),
+				new PropertyEnvironmentSDKDescription(new TestSDKEnvironmentProperty("second")));
+		assertRoundTrip(candidates.get(0));
+		assertRoundTrip(new VersionRangeIndeterminateSDKDescription(candidates, "version",
+				SimpleSDKVersion.valueOf("1.0"), SimpleSDKVersion.valueOf("2.0")));
+		assertRoundTrip(new VersionSelectingEnvironmentSDKDescription(candidates, "version",
+				SimpleSDKVersion.valueOf("1.0"), SimpleSDKVersion.valueOf("2.0"), null));
+		assertRoundTrip(new VersionSelectingEnvironmentSDKDescription(candidates, "version", null, null,
+				SimpleSDKVersion.valueOf("1.5-beta+build.7")));
+	}
+
+	@Test
+	public void environmentProperties() throws Exception {
+		EnvironmentSDKDescription description = new PropertyEnvironmentSDKDescription(
+				new TestSDKEnvironmentProperty("sdk"));
+		assertRoundTrip(new EnvironmentSDKDescriptionReferenceEnvironmentProperty(description));
+		assertRoundTrip(new WatchedEnvironmentSDKReferenceEnvironmentProperty(description, 123456789012L));
+	}
+
+	@Test
+	public void clusterExecutionEnvironmentSelector() throws Exception {
+		List<SDKDescription> descriptions = Arrays.asList(
+				new PropertyEnvironmentSDKDescription(new TestSDKEnvironmentProperty("sdk")),
+				new SimpleUserSDKDescription(null, null, Collections.singletonMap("version", "1.0")));
+		assertRoundTrip(new SDKBasedClusterExecutionEnvironmentSelector(descriptions));
+	}
+
+	@Test
+	public void persistentSDKNameMap() throws Exception {
+		PersistentSDKNameMap<Object> map = SimplePersistentSDKNameMap.empty();
+		map = map.with("MySdk", new SimpleUserSDKDescription(null, null, Collections.singletonMap("version", "1.0")));
+		map = map.with("Other", new SimpleSDKPathReference("Other", "home", SakerPath.valueOf("lib")));
+		map = map.with("Constant", new ConstantSDKPropertyReference("value"));
+		assertRoundTrip(map);
+		assertRoundTrip(SimplePersistentSDKNameMap.empty());
+	}
+
+	@Test
+	public void formattedReference() throws Exception {
+		SimpleSDKPropertyReference property = new SimpleSDKPropertyReference("MySdk", "version");
+		List<SDKValueReference<?>> args = Arrays.asList(property,
+				new SimpleSDKPathReference("MySdk", "home", SakerPath.valueOf("lib")), property);
+		assertRoundTrip(new FormattedSDKPropertyReference("-v%s -L%s -x%s", args));
+
+		//nested formatted references share the string table with the enclosing one
+		assertRoundTrip(new FormattedSDKPropertyReference("%s=%s",
+				Arrays.asList(property, new FormattedSDKPropertyReference("%s", Arrays.asList(property)))));
+	}
+
+	@Test
+	public void formattedReferenceLongStrings() throws Exception {
+		//over the 65535 byte limit of writeUTF
+		String longformat = repeat("-x%s", 20000);
+		SimpleSDKPropertyReference property = new SimpleSDKPropertyReference(repeat("Sdk", 30000), "version");
+		assertRoundTrip(new FormattedSDKPropertyReference(longformat, Arrays.asList(property)));
+		//non-ASCII chars take multiple bytes
+		assertRoundTrip(new FormattedSDKPropertyReference(repeat("\u00e9\u4e2d\ud83d\ude00%s", 10000),
+				Arrays.asList(property)));
+	}
+
+	@Test
+	public void constantReferenceLongStrings() throws Exception {
+		//over the 65535 byte limit of writeUTF
+		ConstantSDKPropertyReference constant = new ConstantSDKPropertyReference(repeat("-DNAME=VALUE ", 6000));
+		assertRoundTrip(constant);
+		assertRoundTrip(new FormattedSDKPropertyReference("%s%s",
+				Arrays.asList(constant, new SimpleSDKPropertyReference("MySdk", "version"))));
+	}
+
+	@Test
+	public void formattedReferenceLegacyFormat() throws Exception {
+		List<SDKValueReference<?>> args = Arrays.asList(new SimpleSDKPropertyReference("MySdk", "version"));
+		byte[] legacy = SerialTestUtils.serializeAs(new LegacyFormattedSDKPropertyReference("-v%s", args),
+				Collections.singletonMap(LegacyFormattedSDKPropertyReference.class,
+						FormattedSDKPropertyReference.class));
+		Object read = SerialTestUtils.deserialize(legacy);
+		assertEquals(new FormattedSDKPropertyReference("-v%s", args), read);
+	}
+
+	@Test
+	public void userSDKDescription() throws Exception {
+		Map<String, SakerPath> paths = new TreeMap<>();
+		paths.put("home", SakerPath.valueOf("/sdk/home"));
+		paths.put("lib", SakerPath.valueOf("/sdk/home/lib"));
+		Map<String, String> properties = new TreeMap<>();
+		properties.put("version", "1.2.3");
+		SimpleUserSDKDescription desc = new SimpleUserSDKDescription(null, paths, properties);
+		assertRoundTrip(desc);
+		assertRoundTrip(new SimpleUserSDKDescription(null, null, null));
+
+		//serializing a deserialized description writes the same bytes
+		byte[] bytes = SerialTestUtils.serialize(desc);
+		assertEquals(Arrays.toString(bytes),
+				Arrays.toString(SerialTestUtils.serialize(SerialTestUtils.deserialize(bytes))));
+	}
+
+	@Test
+	public void userSDKDescriptionLongStrings() throws Exception {
+		//over the 65535 byte limit of writeUTF
+		String longvalue = repeat("/usr/include;", 6000);
+		Map<String, SakerPath> paths = new TreeMap<>();
+		paths.put(repeat("p", 70000), SakerPath.valueOf("/sdk/" + repeat("dir/", 20000)));
+		Map<String, String> properties = new TreeMap<>();
+		properties.put("include.dirs", longvalue);
+		properties.put(repeat("k", 70000), "value");
+		assertRoundTrip(new SimpleUserSDKDescription(null, paths, properties));
+	}
+
+	@Test
+	public void userSDKDescriptionLegacyFormat() throws Exception {
+		Map<String, SakerPath> paths = new TreeMap<>();
+		paths.put("home", SakerPath.valueOf("/sdk/home"));
+		Map<String, String> properties = new TreeMap<>();
+		properties.put("version", "1.2.3");
+		byte[] legacy = SerialTestUtils.serializeAs(new LegacySimpleUserSDKDescription(null, paths, properties),
+				Collections.singletonMap(LegacySimpleUserSDKDescription.class, SimpleUserSDKDescription.class));
+		Object read = SerialTestUtils.deserialize(legacy);
+		SimpleUserSDKDescription expected = new SimpleUserSDKDescription(null, paths, properties);
+		assertEquals(expected, read);
+		//the legacy instance can be written in the current format
+		assertRoundTrip(read);
+	}
+
+	public static class TestSDKEnvironmentProperty implements EnvironmentProperty<SDKReference>, Externalizable {
+		private static final long serialVersionUID = 1L;
+
+		private String name;
+
+		public TestSDKEnvironmentProperty() {
+		}
+
+		public TestSDKEnvironmentProperty(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public SDKReference getCurrentValue(SakerEnvironment environment) throws Exception {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void writeExternal(ObjectOutput out) throws IOException {
+			out.writeUTF(name);
+		}
+
+		@Override
+		public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+			name = in.readUTF();
+		}
+
+		@Override
+		public int hashCode() {
+			return name.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof TestSDKEnvironmentProperty && name.equals(((TestSDKEnvironmentProperty) obj).name);
+		}
+	}
+
+	/**
+	 * Writes the serialized format of {@link FormattedSDKPropertyReference} in saker.sdk.support 0.8.3.
+	 */
+	public static class LegacyFormattedSDKPropertyReference implements Externalizable {
+		private static final long serialVersionUID = 1L;
+
+		private String format;
+		private List<? extends SDKValueReference<?>> arguments;
+
+		public LegacyFormattedSDKPropertyReference() {
+		}
+
+		public LegacyFormattedSDKPropertyReference(String format, List<? extends SDKValueReference<?>> arguments) {
+			this.format = format;
+			this.arguments = arguments;
+		}
+
+		@Override
+		public void writeExternal(ObjectOutput out) throws IOException {
+			out.writeObject(format);
+			SerialUtils.writeExternalCollection(out, arguments);
+		}
+
+		@Override
+		public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	/**
+	 * Writes the serialized format of {@link SimpleUserSDKDescription} in saker.sdk.support 0.8.3.
+	 */
+	public static class LegacySimpleUserSDKDescription implements Externalizable {
+		private static final long serialVersionUID = 1L;
+
+		private EnvironmentQualifier qualifier;
+		private Map<String, SakerPath> paths;
+		private Map<String, String> properties;
+
+		public LegacySimpleUserSDKDescription() {
+		}
+
+		public LegacySimpleUserSDKDescription(EnvironmentQualifier qualifier, Map<String, SakerPath> paths,
+				Map<String, String> properties) {
+			this.qualifier = qualifier;
+			this.paths = paths;
+			this.properties = properties;
+		}
+
+		@Override
+		public void writeExternal(ObjectOutput out) throws IOException {
+			out.writeObject(qualifier);
+			SerialUtils.writeExternalMap(out, paths);
+			SerialUtils.writeExternalMap(out, properties);
+		}
+
+		@Override
+		public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package testing.saker.sdk.support;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import saker.build.file.path.SakerPath;
+import saker.sdk.support.impl.ConstantSDKPropertyReference;
+import saker.sdk.support.impl.FormattedSDKPropertyReference;
+import saker.sdk.support.impl.SDKBasedClusterExecutionEnvironmentSelector;
+import saker.sdk.support.impl.SimpleSDKPathReference;
+import saker.sdk.support.impl.SimpleSDKPropertyReference;
+import saker.sdk.support.impl.SimpleUserSDKDescription;
+
+/**
+ * Measures the serialization throughput of the SDK classes.
+ * <p>
+ * This is not a unit test, the results depend on the machine. Run the main method to print the number of round trips
+ * per second and the serialized size for each sample, and compare the results before and after a format change.
+ * <p>
+ * The first argument is the measurement time for each sample in milliseconds. (Defaults to 2000.)
+ */
+public class SerializationThroughputBenchmark {
+	public static void main(String[] args) throws Exception {
+		long millis = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+		for (Entry<String, Object> entry : createSamples().entrySet()) {
+			Object sample = entry.getValue();
+			//warm up
+			measure(sample, millis / 4);
+			double persecond = measure(sample, millis);
+			System.out.printf("%-24s %12.0f round trips/s %8d bytes%n", entry.getKey(), persecond,
+					SerialTestUtils.serializedSize(sample));
+		}
+	}
+
+	private static double measure(Object sample, long millis) throws Exception {
+		long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+		long start = System.nanoTime();
+		long count = 0;
+		long now;
+		do {
+			SerialTestUtils.roundTrip(sample);
+			++count;
+			now = System.nanoTime();
+		} while (now < end);
+		return count * 1_000_000_000.0 / (now - start);
+	}
+
+	private static Map<String, Object> createSamples() {
+		SimpleSDKPropertyReference property = new SimpleSDKPropertyReference("MySdk", "version");
+		SimpleSDKPathReference path = new SimpleSDKPathReference("MySdk", "home", SakerPath.valueOf("lib"));
+		Map<String, SakerPath> paths = new TreeMap<>();
+		paths.put("home", SakerPath.valueOf("/sdk/home"));
+		paths.put("lib", SakerPath.valueOf("/sdk/home/lib"));
+		SimpleUserSDKDescription userdesc = new SimpleUserSDKDescription(null, paths,
+				Collections.singletonMap("version", "1.2.3"));
+
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("path", path);
+		result.put("property", property);
+		result.put("constant", new ConstantSDKPropertyReference("constant"));
+		result.put("formatted", new FormattedSDKPropertyReference("-v%s -L%s -x%s",
+				Arrays.asList(property, path, property)));
+		result.put("user description", userdesc);
+		result.put("cluster selector",
+				new SDKBasedClusterExecutionEnvironmentSelector(Collections.singletonList(userdesc)));
+		result.put("long constant", new ConstantSDKPropertyReference(SerialTestUtils.repeat("-DNAME=VALUE ", 6000)));
+		return result;
+	}
+}
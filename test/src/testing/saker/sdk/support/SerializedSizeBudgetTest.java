@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package testing.saker.sdk.support;
+
+import static org.junit.Assert.assertTrue;
+import static testing.saker.sdk.support.SerialTestUtils.repeat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import saker.build.file.path.SakerPath;
+import saker.sdk.support.api.SDKValueReference;
+import saker.sdk.support.impl.ConstantSDKPropertyReference;
+import saker.sdk.support.impl.FormattedSDKPropertyReference;
+import saker.sdk.support.impl.SDKBasedClusterExecutionEnvironmentSelector;
+import saker.sdk.support.impl.SimpleSDKPathReference;
+import saker.sdk.support.impl.SimpleSDKPropertyReference;
+import saker.sdk.support.impl.SimpleUserSDKDescription;
+import testing.saker.sdk.support.SerializationRoundTripTest.LegacyFormattedSDKPropertyReference;
+
+/**
+ * Checks that the serialized forms of the SDK classes don't grow over the given budgets.
+ * <p>
+ * The budgets are the serialized sizes at the time of writing with some headroom. If a change makes a format larger,
+ * the budget should only be raised deliberately.
+ */
+public class SerializedSizeBudgetTest {
+	/**
+	 * A string that is longer than the 65535 byte limit of <code>writeUTF</code>.
+	 */
+	private static final String LONG_STRING = repeat("-DNAME=VALUE ", 6000);
+	/**
+	 * The allowed overhead for serializing the {@link #LONG_STRING}, in addition to its length.
+	 */
+	private static final int LONG_STRING_OVERHEAD_BUDGET = 1024;
+
+	private static void assertSizeBudget(Object obj, int budget) throws Exception {
+		int size = SerialTestUtils.serializedSize(obj);
+		assertTrue("Serialized size of " + obj.getClass().getSimpleName() + " is " + size
+				+ " bytes, over the budget of " + budget, size <= budget);
+	}
+
+	@Test
+	public void valueReferences() throws Exception {
+		SimpleSDKPropertyReference property = new SimpleSDKPropertyReference("MySdk", "version");
+		assertSizeBudget(new SimpleSDKPathReference("MySdk", "home", SakerPath.valueOf("include")), 180);
+		assertSizeBudget(property, 112);
+		assertSizeBudget(new ConstantSDKPropertyReference("constant"), 108);
+		assertSizeBudget(new FormattedSDKPropertyReference("-v%s -L%s -x%s", Arrays.asList(property,
+				new SimpleSDKPathReference("MySdk", "home", SakerPath.valueOf("lib")), property)), 172);
+	}
+
+	@Test
+	public void formattedReferenceSmallerThanLegacy() throws Exception {
+		SimpleSDKPropertyReference property = new SimpleSDKPropertyReference("MySdk", "version");
+		List<SDKValueReference<?>> args = Arrays.asList(property,
+				new SimpleSDKPathReference("MySdk", "home", SakerPath.valueOf("lib")), property);
+		int size = SerialTestUtils.serializedSize(new FormattedSDKPropertyReference("-v%s -L%s -x%s", args));
+		int legacysize = SerialTestUtils
+				.serializedSize(new LegacyFormattedSDKPropertyReference("-v%s -L%s -x%s", args));
+		assertTrue("Compact size " + size + " is not less than the legacy size " + legacysize, size < legacysize);
+	}
+
+	@Test
+	public void sdkDescriptions() throws Exception {
+		Map<String, SakerPath> paths = new TreeMap<>();
+		paths.put("home", SakerPath.valueOf("/sdk/home"));
+		paths.put("lib", SakerPath.valueOf("/sdk/home/lib"));
+		Map<String, String> properties = Collections.singletonMap("version", "1.2.3");
+		SimpleUserSDKDescription desc = new SimpleUserSDKDescription(null, paths, properties);
+		assertSizeBudget(desc, 190);
+		assertSizeBudget(new SDKBasedClusterExecutionEnvironmentSelector(
+				Arrays.asList(new SimpleUserSDKDescription(null, null, properties))), 250);
+	}
+
+	@Test
+	public void longStrings() throws Exception {
+		int budget = LONG_STRING.length() + LONG_STRING_OVERHEAD_BUDGET;
+		SimpleSDKPropertyReference property = new SimpleSDKPropertyReference("MySdk", "version");
+		assertSizeBudget(new ConstantSDKPropertyReference(LONG_STRING), budget);
+		assertSizeBudget(new FormattedSDKPropertyReference(LONG_STRING + "%s", Arrays.asList(property)), budget);
+		assertSizeBudget(
+				new SimpleUserSDKDescription(null, null, Collections.singletonMap("include.dirs", LONG_STRING)),
+				budget);
+	}
+}
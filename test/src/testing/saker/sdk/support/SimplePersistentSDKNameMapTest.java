@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package testing.saker.sdk.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import saker.sdk.support.api.PersistentSDKNameMap;
+import saker.sdk.support.api.SDKSupportUtils;
+
+public class SimplePersistentSDKNameMapTest {
+	private static final String[] NAMES = { "a", "B", "c", "D", "e", "F", "g", "H", "i", "J", "k", "L", "m", "N", "o",
+			"P", "q", "R", "s", "T", "u", "V", "w", "X", "y", "Z" };
+
+	private static void assertSameContents(NavigableMap<String, Integer> expected,
+			PersistentSDKNameMap<Integer> actual) {
+		assertEquals(expected.size(), actual.size());
+		assertEquals(expected.isEmpty(), actual.isEmpty());
+		assertEquals(new ArrayList<>(expected.entrySet()), new ArrayList<>(actual.entrySet()));
+		assertEquals(expected, actual);
+		assertEquals(actual, expected);
+		assertEquals(expected.hashCode(), actual.hashCode());
+		if (!expected.isEmpty()) {
+			assertEquals(expected.firstKey(), actual.firstKey());
+			assertEquals(expected.lastKey(), actual.lastKey());
+		}
+		for (String name : NAMES) {
+			for (String key : new String[] { name, name.toUpperCase(), name.toLowerCase(), name + "0" }) {
+				assertEquals(expected.get(key), actual.get(key));
+				assertEquals(expected.containsKey(key), actual.containsKey(key));
+				assertEquals(expected.lowerKey(key), actual.lowerKey(key));
+				assertEquals(expected.floorKey(key), actual.floorKey(key));
+				assertEquals(expected.ceilingKey(key), actual.ceilingKey(key));
+				assertEquals(expected.higherKey(key), actual.higherKey(key));
+			}
+		}
+	}
+
+	@Test
+	public void randomOperations() {
+		Random random = new Random(12345);
+		NavigableMap<String, Integer> expected = new TreeMap<>(SDKSupportUtils.getSDKNameComparator());
+		PersistentSDKNameMap<Integer> actual = PersistentSDKNameMap.empty();
+		for (int i = 0; i < 2000; i++) {
+			String name = NAMES[random.nextInt(NAMES.length)];
+			if (random.nextBoolean()) {
+				name = name.toUpperCase();
+			}
+			PersistentSDKNameMap<Integer> prev = actual;
+			NavigableMap<String, Integer> prevexpected = new TreeMap<>(expected);
+			if (random.nextInt(3) == 0) {
+				expected.remove(name);
+				actual = actual.without(name);
+			} else {
+				expected.put(name, i);
+				actual = actual.with(name, i);
+			}
+			assertSameContents(expected, actual);
+			//the previous version is unaffected
+			assertEquals(prevexpected, prev);
+		}
+	}
+
+	@Test
+	public void copyOf() {
+		NavigableMap<String, Integer> expected = new TreeMap<>(SDKSupportUtils.getSDKNameComparator());
+		for (int i = 0; i < NAMES.length; i++) {
+			expected.put(NAMES[i], i);
+		}
+		assertSameContents(expected, PersistentSDKNameMap.copyOf(expected));
+		assertSameContents(expected, PersistentSDKNameMap.<Integer>empty().withAll(expected));
+	}
+
+	@Test
+	public void sameNameReplaces() {
+		PersistentSDKNameMap<Integer> map = PersistentSDKNameMap.<Integer>empty().with("MySdk", 1).with("mysdk", 2);
+		assertEquals(1, map.size());
+		assertEquals(Integer.valueOf(2), map.get("MYSDK"));
+		assertTrue(map.without("MYSDK").isEmpty());
+		assertFalse(map.isEmpty());
+		assertNull(map.get("other"));
+	}
+
+	@Test
+	public void equalsIgnoresKeyCase() {
+		PersistentSDKNameMap<Integer> upper = PersistentSDKNameMap.<Integer>empty().with("MySdk", 1).with("Other", 2);
+		PersistentSDKNameMap<Integer> lower = PersistentSDKNameMap.<Integer>empty().with("mysdk", 1).with("other", 2);
+		NavigableMap<String, Integer> expected = new TreeMap<>(SDKSupportUtils.getSDKNameComparator());
+		expected.putAll(lower);
+		assertEquals(upper, lower);
+		assertEquals(lower, upper);
+		assertEquals(expected, upper);
+		assertEquals(upper, expected);
+		assertFalse(upper.equals(lower.with("third", 3)));
+		assertFalse(upper.equals(lower.with("other", 3)));
+	}
+
+	@Test
+	public void serialization() throws Exception {
+		PersistentSDKNameMap<Integer> map = PersistentSDKNameMap.empty();
+		for (int i = 0; i < NAMES.length; i++) {
+			map = map.with(NAMES[i], i);
+		}
+		Map<String, Integer> read = SerialTestUtils.roundTrip(map);
+		assertEquals(map, read);
+		assertEquals(map.hashCode(), read.hashCode());
+		assertEquals(new ArrayList<>(map.entrySet()), new ArrayList<>(read.entrySet()));
+	}
+}
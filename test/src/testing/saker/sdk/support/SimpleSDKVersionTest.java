@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2020 Bence Sipka
+ *
+ * This program is free software: you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package testing.saker.sdk.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import saker.sdk.support.api.SDKVersion;
+
+public class SimpleSDKVersionTest {
+	private static void assertOrdered(String... versions) {
+		for (int i = 0; i < versions.length; i++) {
+			SDKVersion v = SDKVersion.valueOf(versions[i]);
+			assertEquals(versions[i], 0, v.compareTo(SDKVersion.valueOf(versions[i])));
+			for (int j = i + 1; j < versions.length; j++) {
+				SDKVersion greater = SDKVersion.valueOf(versions[j]);
+				assertTrue(versions[i] + " < " + versions[j], v.compareTo(greater) < 0);
+				assertTrue(versions[j] + " > " + versions[i], greater.compareTo(v) > 0);
+			}
+		}
+	}
+
+	private static void assertSameVersion(String first, String second) {
+		SDKVersion v1 = SDKVersion.valueOf(first);
+		SDKVersion v2 = SDKVersion.valueOf(second);
+		assertEquals(0, v1.compareTo(v2));
+		assertEquals(v1, v2);
+		assertEquals(v1.hashCode(), v2.hashCode());
+	}
+
+	@Test
+	public void numericOrdering() {
+		assertOrdered("1", "1.1", "1.2", "1.10", "2", "2.0.1", "10");
+		assertOrdered("1.8.0_202", "1.8.0_212", "9", "11.0.2", "11.0.10");
+	}
+
+	@Test
+	public void trailingZeros() {
+		assertSameVersion("1", "1.0");
+		assertSameVersion("1.2", "1.2.0.0");
+		assertEquals(2, SDKVersion.valueOf("1.2.0").getComponentCount());
+		assertEquals(0, SDKVersion.valueOf("1.2").getComponent(5));
+	}
+
+	@Test
+	public void qualifiers() {
+		assertOrdered("1.0-alpha", "1.0-beta", "1.0", "1.0.1");
+		assertEquals("-beta", SDKVersion.valueOf("1.0-beta").getQualifier());
+		assertNull(SDKVersion.valueOf("1.0").getQualifier());
+	}
+
+	@Test
+	public void qualifierSegments() {
+		assertOrdered("1.0-rc1", "1.0-rc2", "1.0-rc9", "1.0-rc10", "1.0");
+		assertOrdered("1.0-alpha", "1.0-alpha.1", "1.0-alpha.beta", "1.0-beta", "1.0-beta.2", "1.0-beta.11",
+				"1.0-rc.1", "1.0");
+		assertOrdered("1.0-rc9", "1.0-rc09a", "1.0-rc10");
+	}
+
+	@Test
+	public void buildMetadata() {
+		assertOrdered("11.0.2-ea", "11.0.2-ea+7", "11.0.2", "11.0.2+9", "11.0.2+10", "11.0.3");
+		assertEquals("+9", SDKVersion.valueOf("11.0.2+9").getQualifier());
+		assertFalse(SDKVersion.valueOf("11.0.2+9").equals(SDKVersion.valueOf("11.0.2")));
+	}
+
+	@Test
+	public void ranges() {
+		SDKVersion v = SDKVersion.valueOf("11.0.2");
+		assertTrue(v.isAtLeast(SDKVersion.valueOf("11")));
+		assertFalse(v.isAtLeast(SDKVersion.valueOf("12")));
+		assertTrue(v.isInRange(SDKVersion.valueOf("11"), SDKVersion.valueOf("12")));
+		assertTrue(v.isInRange(null, null));
+		assertFalse(v.isInRange(SDKVersion.valueOf("11.0.2"), SDKVersion.valueOf("11.0.2")));
+		assertFalse(v.isInRange(SDKVersion.valueOf("8"), SDKVersion.valueOf("11")));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidVersion() {
+		SDKVersion.valueOf("abc");
+	}
+
+	@Test
+	public void serialization() throws Exception {
+		SDKVersion v = SDKVersion.valueOf("1.8.0_202-b08");
+		SDKVersion read = SerialTestUtils.roundTrip(v);
+		assertEquals(v, read);
+		assertEquals(v.toString(), read.toString());
+		assertEquals(0, v.compareTo(read));
+	}
+}